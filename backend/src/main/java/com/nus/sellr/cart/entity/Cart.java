@@ -3,6 +3,7 @@ package com.nus.sellr.cart.entity;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,6 +15,7 @@ public class Cart {
     @Id
     private String id;
 
+    @Indexed
     private String userId; // Link cart to a specific user
     private List<CartItem> items = new ArrayList<>();
 
@@ -6,10 +6,11 @@ import com.nus.sellr.cart.entity.Cart;
 import com.nus.sellr.cart.entity.CartItem;
 import com.nus.sellr.cart.repository.CartRepository;
 import com.nus.sellr.product.entity.Product;
-import com.nus.sellr.product.repository.ProductRepository;
+import com.nus.sellr.product.service.ProductService;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -17,11 +18,11 @@ import java.util.stream.Collectors;
 public class CartService {
 
     private final CartRepository cartRepository;
-    private final ProductRepository productRepository;
+    private final ProductService productService;
 
-    public CartService(CartRepository cartRepository, ProductRepository productRepository) {
+    public CartService(CartRepository cartRepository, ProductService productService) {
         this.cartRepository = cartRepository;
-        this.productRepository = productRepository;
+        this.productService = productService;
     }
 
     // Add product to cart
@@ -30,8 +31,7 @@ public class CartService {
                 .orElseGet(() -> new Cart(userId));
 
         // Ensure product exists
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+        productService.getProductEntityById(productId);
 
         Optional<CartItem> existingItem = cart.getItems().stream()
                 .filter(item -> item.getProductId().equals(productId))
@@ -97,11 +97,15 @@ public class CartService {
     }
 
     private CartDTO convertToDTO(Cart cart) {
+        // One lookup for the whole cart rather than one per item
+        Map<String, Product> products = productService.getProductsByIds(cart.getItems().stream()
+                .map(CartItem::getProductId)
+                .collect(Collectors.toList()));
+
         List<CartItemDTO> itemDTOs = cart.getItems().stream()
             .map(item -> {
-                Optional<Product> productOpt = productRepository.findById(item.getProductId());
-                if (productOpt.isPresent()) {
-                    Product product = productOpt.get();
+                Product product = products.get(item.getProductId());
+                if (product != null) {
                     return new CartItemDTO(
                         product.getId(),
                         product.getName(),
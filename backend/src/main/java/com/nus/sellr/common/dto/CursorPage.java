@@ -0,0 +1,31 @@
+package com.nus.sellr.common.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+// One slice of a keyset-paginated listing; pass nextCursor back as "after" to fetch the next slice
+@Getter
+@Setter
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor;   // null on the last slice
+    private int size;
+    private Long totalElements;  // null unless the client asked for a count
+    private boolean totalEstimated;  // totalElements is a lower bound ("10,000+")
+
+    public CursorPage() {
+    }
+
+    public CursorPage(List<T> content, String nextCursor, int size, Long totalElements) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.size = size;
+        this.totalElements = totalElements;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+}
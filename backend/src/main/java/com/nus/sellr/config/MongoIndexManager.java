@@ -0,0 +1,240 @@
+package com.nus.sellr.config;
+
+import com.nus.sellr.cart.entity.Cart;
+import com.nus.sellr.order.entity.Order;
+import com.nus.sellr.product.entity.Product;
+import com.nus.sellr.product.entity.ProductReview;
+import com.nus.sellr.user.entity.Buyer;
+import com.nus.sellr.user.entity.Seller;
+import com.nus.sellr.wishlist.entity.Wishlist;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Startup index bootstrap. Indexes are declared on the entities (@Indexed, @CompoundIndex);
+ * this creates any that are missing, then explains each hot repository query and reports
+ * any whose winning plan is a collection scan. With sellr.indexes.on-collscan=fail the
+ * application then refuses traffic (readiness) instead of only logging a warning.
+ */
+@Component
+public class MongoIndexManager implements ApplicationRunner {
+
+    private static final String SAMPLE_ID = "000000000000000000000000";
+    private static final Document NEWEST_FIRST = new Document("createdAt", -1).append("_id", -1);
+
+    // The filters (and sorts) the repositories send, with placeholder values
+    static final List<QueryProbe> PROBES = List.of(
+            new QueryProbe("OrderRepository.findByUserId", Order.class,
+                    new Document("userId", SAMPLE_ID), null),
+            new QueryProbe("OrderRepository.findOrdersBySellerId", Order.class,
+                    new Document("items", new Document("$elemMatch", new Document("sellerId", SAMPLE_ID))), null),
+            new QueryProbe("OrderService.getOrdersByUserId (page)", Order.class,
+                    new Document("userId", SAMPLE_ID), NEWEST_FIRST),
+            new QueryProbe("OrderService.getOrdersForSeller (page)", Order.class,
+                    new Document("items.sellerId", SAMPLE_ID), NEWEST_FIRST),
+            new QueryProbe("OrderService.getAllOrders (page)", Order.class,
+                    new Document(), NEWEST_FIRST),
+            new QueryProbe("CartRepository.findByUserId", Cart.class,
+                    new Document("userId", SAMPLE_ID), null),
+            new QueryProbe("WishlistRepository.findByUserId", Wishlist.class,
+                    new Document("userId", SAMPLE_ID), null),
+            new QueryProbe("ProductReviewRepository.findByProductId", ProductReview.class,
+                    new Document("productId", SAMPLE_ID), new Document("dateCreated", -1)),
+            new QueryProbe("ProductReviewRepository.existsByProductIdAndUserId", ProductReview.class,
+                    new Document("productId", SAMPLE_ID).append("userId", SAMPLE_ID), null),
+            new QueryProbe("ProductRepository.findBySellerId", Product.class,
+                    new Document("sellerId", SAMPLE_ID), null),
+            new QueryProbe("ProductService.getProductSummariesBySellerId", Product.class,
+                    new Document("sellerId", SAMPLE_ID).append("_id", new Document("$gt", new ObjectId(SAMPLE_ID))),
+                    new Document("_id", 1)),
+            new QueryProbe("ProductRepository.findByUpdatedAtGreaterThanEqual", Product.class,
+                    new Document("updatedAt", new Document("$gte", Date.from(Instant.EPOCH))), null),
+            new QueryProbe("SellerRepository.existsByUsername", Seller.class,
+                    new Document("username", SAMPLE_ID), null),
+            new QueryProbe("BuyerRepository.existsByEmail", Buyer.class,
+                    new Document("email", SAMPLE_ID), null)
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean refuseOnCollectionScan;
+
+    private volatile List<String> collectionScans = List.of();
+
+    public MongoIndexManager(MongoTemplate mongoTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${sellr.indexes.on-collscan:warn}") String onCollectionScan) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.refuseOnCollectionScan = "fail".equalsIgnoreCase(onCollectionScan);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ensureIndexes();
+        collectionScans = verifyQueries();
+        if (!collectionScans.isEmpty()) {
+            System.out.println("WARNING: queries planned as COLLSCAN: " + collectionScans);
+        }
+    }
+
+    // Names of the probed queries whose plan was a collection scan at startup
+    public List<String> getCollectionScans() {
+        return collectionScans;
+    }
+
+    // Boot marks the app ready after the runners; in fail mode a collection scan takes that back
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && refuseOnCollectionScan
+                && !collectionScans.isEmpty()) {
+            System.out.println("Refusing traffic until indexes cover: " + collectionScans);
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    // Creates every index declared on a @Document entity that the collection does not have yet
+    void ensureIndexes() {
+        MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext =
+                mongoTemplate.getConverter().getMappingContext();
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(org.springframework.data.mongodb.core.mapping.Document.class)) {
+                continue;
+            }
+            List<Document> existing = existingKeys(entity.getCollection());
+            for (IndexDefinition index : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                if (existing.stream().anyMatch(keys -> sameKeys(keys, index.getIndexKeys()))) {
+                    continue;
+                }
+                try {
+                    String name = mongoTemplate.indexOps(entity.getCollection()).ensureIndex(index);
+                    System.out.println("Created index " + name + " on " + entity.getCollection());
+                } catch (RuntimeException e) {
+                    System.out.println("Could not create index " + index.getIndexKeys().toJson() + " on "
+                            + entity.getCollection() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private List<Document> existingKeys(String collection) {
+        List<Document> keys = new ArrayList<>();
+        if (mongoTemplate.collectionExists(collection)) {
+            for (Document index : mongoTemplate.getCollection(collection).listIndexes()) {
+                keys.add(index.get("key", Document.class));
+            }
+        }
+        return keys;
+    }
+
+    // Same fields in the same order and direction; the server may hand back 1 as 1.0 or 1L
+    static boolean sameKeys(Document a, Document b) {
+        if (a == null || b == null || a.size() != b.size()) {
+            return false;
+        }
+        Iterator<Map.Entry<String, Object>> left = a.entrySet().iterator();
+        Iterator<Map.Entry<String, Object>> right = b.entrySet().iterator();
+        while (left.hasNext()) {
+            Map.Entry<String, Object> l = left.next();
+            Map.Entry<String, Object> r = right.next();
+            if (!l.getKey().equals(r.getKey()) || !sameDirection(l.getValue(), r.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameDirection(Object a, Object b) {
+        if (a instanceof Number && b instanceof Number) {
+            return ((Number) a).doubleValue() == ((Number) b).doubleValue();
+        }
+        return Objects.equals(a, b);
+    }
+
+    // Explains every probe; returns the ones planned as a collection scan
+    List<String> verifyQueries() {
+        List<String> scans = new ArrayList<>();
+        for (QueryProbe probe : PROBES) {
+            try {
+                Document plan = explain(probe);
+                if (hasStage(plan, "COLLSCAN")) {
+                    scans.add(probe.name);
+                }
+            } catch (RuntimeException e) {
+                System.out.println("Could not explain " + probe.name + ": " + e.getMessage());
+            }
+        }
+        return scans;
+    }
+
+    private Document explain(QueryProbe probe) {
+        Document find = new Document("find", mongoTemplate.getCollectionName(probe.entity))
+                .append("filter", probe.filter)
+                .append("limit", 1);
+        if (probe.sort != null) {
+            find.append("sort", probe.sort);
+        }
+        Document result = mongoTemplate.getDb()
+                .runCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+        return result.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+    }
+
+    // Walks the plan tree (inputStage, inputStages, and the queryPlan wrapper of newer servers)
+    static boolean hasStage(Object plan, String stage) {
+        if (plan instanceof Document) {
+            Document node = (Document) plan;
+            if (stage.equals(node.get("stage"))) {
+                return true;
+            }
+            for (Object child : node.values()) {
+                if (hasStage(child, stage)) {
+                    return true;
+                }
+            }
+        } else if (plan instanceof List) {
+            for (Object child : (List<?>) plan) {
+                if (hasStage(child, stage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static final class QueryProbe {
+        final String name;
+        final Class<?> entity;
+        final Document filter;
+        final Document sort;
+
+        QueryProbe(String name, Class<?> entity, Document filter, Document sort) {
+            this.name = name;
+            this.entity = entity;
+            this.filter = filter;
+            this.sort = sort;
+        }
+    }
+}
@@ -1,24 +1,34 @@
 package com.nus.sellr.config;
 
+import com.nus.sellr.product.controller.CatalogETagInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig {
 
     @Bean
-    public WebMvcConfigurer corsConfigurer() {
+    public WebMvcConfigurer corsConfigurer(CatalogETagInterceptor catalogETagInterceptor) {
         return new WebMvcConfigurer() {
             @Override
             public void addCorsMappings(CorsRegistry registry) {
                 // Allow React dev server to access all endpoints
                 registry.addMapping("/**")
                         .allowedOrigins("http://localhost:3000")
-                        .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                        .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                         .allowedHeaders("*");
             }
+
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                // ETag / If-None-Match for catalog reads; cache stats are live counters, so they stay untagged
+                registry.addInterceptor(catalogETagInterceptor)
+                        .addPathPatterns("/api/products", "/api/products/**")
+                        .excludePathPatterns("/api/products/cache/**");
+            }
         };
     }
 }
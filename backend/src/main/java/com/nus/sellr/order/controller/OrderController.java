@@ -1,5 +1,6 @@
 package com.nus.sellr.order.controller;
 
+import com.nus.sellr.common.dto.CursorPage;
 import com.nus.sellr.order.dto.*;
 import com.nus.sellr.order.service.OrderService;
 import lombok.RequiredArgsConstructor;
@@ -37,6 +38,13 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    // 4. Get Orders by User ID, one page at a time; pass nextCursor back as "after"
+    @GetMapping("/user/{userId}/page")
+    public CursorPage<OrderResponseDTO> getOrdersByUserIdPage(@PathVariable String userId,
+                                                              @RequestParam(required = false) String after,
+                                                              @RequestParam(defaultValue = "20") int size) {
+        return orderService.getOrdersByUserId(userId, after, size);
+    }
 
     // 5. Add Review to Order Item
     @PatchMapping("/item/review")
@@ -62,6 +70,13 @@ public class OrderController {
         return ResponseEntity.ok(orders); // 200 OK with list
     }
 
+    @GetMapping("/seller/page")
+    public CursorPage<OrderResponseDTO> getOrdersForSellerPage(@RequestParam String sellerId,
+                                                               @RequestParam(required = false) String after,
+                                                               @RequestParam(defaultValue = "20") int size) {
+        return orderService.getOrdersForSeller(sellerId, after, size);
+    }
+
     // Seller updates status of their item
     @PutMapping("/seller/status")
     public void updateItemStatus(@RequestBody UpdateOrderItemStatusDTO request) {
@@ -109,6 +124,12 @@ public class OrderController {
         return ResponseEntity.ok(orders); // 200 OK with list
     }
 
+    @GetMapping("/page")
+    public CursorPage<OrderResponseDTO> getAllOrdersPage(@RequestParam(required = false) String after,
+                                                         @RequestParam(defaultValue = "20") int size) {
+        return orderService.getAllOrders(after, size);
+    }
+
     // PUT /api/orders/item/resolve
     @PutMapping("/item/resolve")
     public ResponseEntity<?> resolveDispute(@RequestBody ResolveDisputeDTO request) {
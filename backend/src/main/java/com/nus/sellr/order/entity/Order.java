@@ -3,16 +3,26 @@ package com.nus.sellr.order.entity;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @Setter
 @Document(collection = "orders")
+// a buyer's orders, a seller's orders (multikey over items) and all orders, newest first
+@CompoundIndexes({
+    @CompoundIndex(name = "userId_createdAt", def = "{'userId': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "items.sellerId_createdAt", def = "{'items.sellerId': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}")
+})
 public class Order {
     @Id
     private String id;
@@ -26,6 +36,8 @@ public class Order {
     private PaymentDetails paymentDetails;
     private String paymentMethod;
     private OrderStatus overallStatus = OrderStatus.PENDING;
+    // Items per status, kept in step with items whenever an item status changes; empty on older orders
+    private Map<OrderStatus, Integer> itemStatusCounts = new EnumMap<>(OrderStatus.class);
 
     public Order() {
         this.createdAt = LocalDateTime.now();
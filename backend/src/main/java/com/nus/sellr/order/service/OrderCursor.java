@@ -0,0 +1,63 @@
+package com.nus.sellr.order.service;
+
+import com.nus.sellr.order.entity.Order;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for order listings, which are newest first by (createdAt, _id):
+ * the last row's createdAt and _id, encoded as URL-safe base64.
+ */
+public final class OrderCursor {
+
+    // Newest first; _id breaks ties between orders placed in the same millisecond
+    public static final Sort SORT = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+
+    private final LocalDateTime createdAt;
+    private final String id;
+
+    private OrderCursor(LocalDateTime createdAt, String id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static OrderCursor after(Order last) {
+        return new OrderCursor(last.getCreatedAt(), last.getId());
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 2);
+            if (parts.length != 2 || !ObjectId.isValid(parts[1])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime createdAt = "-".equals(parts[0]) ? null : LocalDateTime.parse(parts[0]);
+            return new OrderCursor(createdAt, parts[1]);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = (createdAt == null ? "-" : createdAt.toString()) + "\n" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Orders strictly after the cursor in SORT order; orders without createdAt sort last
+    public Criteria toCriteria() {
+        Criteria tie = new Criteria().andOperator(Criteria.where("createdAt").is(createdAt),
+                Criteria.where("id").lt(new ObjectId(id)));
+        if (createdAt == null) {
+            return tie;
+        }
+        return new Criteria().orOperator(Criteria.where("createdAt").lt(createdAt), tie,
+                Criteria.where("createdAt").is(null));
+    }
+}
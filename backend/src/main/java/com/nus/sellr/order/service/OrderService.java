@@ -1,6 +1,7 @@
 package com.nus.sellr.order.service;
 
 import com.nus.sellr.cart.service.CartService;
+import com.nus.sellr.common.dto.CursorPage;
 import com.nus.sellr.order.dto.*;
 import com.nus.sellr.order.entity.Order;
 import com.nus.sellr.order.entity.OrderItem;
@@ -8,28 +9,38 @@ import com.nus.sellr.order.entity.OrderStatus;
 import com.nus.sellr.order.payment.PaymentStrategy;
 import com.nus.sellr.order.payment.PaymentStrategyFactory;
 import com.nus.sellr.order.repository.OrderRepository;
-import com.nus.sellr.product.dto.ProductResponse;
 import com.nus.sellr.product.entity.Product;
 import com.nus.sellr.product.service.ProductService;
-import com.nus.sellr.user.entity.Seller;
-import com.nus.sellr.user.repository.SellerRepository;
+import com.nus.sellr.user.cache.SellerDirectory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
     private final CartService cartService;
     private final ProductService productService;
     private final PaymentStrategyFactory paymentStrategyFactory;
-    private final SellerRepository sellerRepository;
+    private final SellerDirectory sellerDirectory;
+    private final MongoTemplate mongoTemplate;
 
     public OrderResponseDTO checkout(CheckoutRequestDTO request) {
         PaymentStrategy paymentStrategy = paymentStrategyFactory.getStrategy(request.getPaymentMethod());
@@ -55,15 +66,14 @@ public class OrderService {
         order.setPaymentMethod(request.getPaymentMethod());
         order.setPaymentDetails(request.getPaymentDetails());
         order.setOverallStatus(OrderStatus.PENDING);
+        order.setItemStatusCounts(countItemStatuses(order.getItems()));
         order.setCreatedAt(LocalDateTime.now());
 
         Order savedOrder = orderRepository.save(order);
 
         for (OrderItem item : savedOrder.getItems()) {
-            Product product = productService.getProductEntityById(item.getProductId());
-            int updatedStock = product.getStock() - item.getQuantity();
-            product.setStock(Math.max(0, updatedStock));  // prevent negative stock
-            productService.saveProduct(product);
+            productService.decrementStock(item.getProductId(), item.getQuantity());
+            productService.recordSale(item.getProductId(), item.getQuantity());
         }
 
         cartService.clearCart(request.getUserId());
@@ -81,6 +91,7 @@ public class OrderService {
                 .collect(Collectors.toList());
 
         order.setItems(items);
+        order.setItemStatusCounts(countItemStatuses(items));
         order.setOrderPrice(calculateTotal(items));
 
         Order saved = orderRepository.save(order);
@@ -94,36 +105,23 @@ public class OrderService {
     }
 
     public List<OrderResponseDTO> getOrdersByUserId(String userId) {
-        return orderRepository.findByUserId(userId).stream()
-                .map(order -> {
-                    // Count items by status
-                    long pendingCount = order.getItems().stream()
-                            .filter(item -> item.getStatus() == OrderStatus.PENDING)
-                            .count();
-
-                    long shippedCount = order.getItems().stream()
-                            .filter(item -> item.getStatus() == OrderStatus.SHIPPED)
-                            .count();
-
-                    long activeCount = order.getItems().stream()
-                            .filter(item -> item.getStatus() == OrderStatus.DELIVERED
-                                    || item.getStatus() == OrderStatus.RESOLVED)
-                            .count();
-
-                    // If all items are delivered, mark overall status as COMPLETED
-                    if (pendingCount == 0 && shippedCount == 0 && activeCount > 0) {
-                        order.setOverallStatus(OrderStatus.COMPLETED);
-                        orderRepository.save(order);
-                    } else {
-                        order.setOverallStatus(OrderStatus.INCOMPLETE);
-                    }
+        return toResponseDTOs(toBuyerView(orderRepository.findByUserId(userId)));
+    }
 
-                    // You can also store counts in the DTO if needed
-                    OrderResponseDTO dto = toResponseDTO(order);
+    // One page of a buyer's orders, newest first; pass nextCursor back as "after"
+    public CursorPage<OrderResponseDTO> getOrdersByUserId(String userId, String after, int size) {
+        List<Order> rows = findPage(Criteria.where("userId").is(userId), after, size);
+        List<Order> orders = rows.subList(0, Math.min(size, rows.size()));
+        return new CursorPage<>(toResponseDTOs(toBuyerView(orders)), nextCursor(rows, size), size, null);
+    }
 
-                    return dto;
-                })
-                .collect(Collectors.toList());
+    // Buyers see an order as COMPLETED or INCOMPLETE, worked out from the item counts; the stored status
+    // (what sellers and admins see) is left as it is. Set in memory only; nothing is saved on this path.
+    private List<Order> toBuyerView(List<Order> orders) {
+        for (Order order : orders) {
+            order.setOverallStatus(buyerStatus(itemStatusCounts(order)));
+        }
+        return orders;
     }
 
     public void addReviewToOrderItem(AddReviewDTO reviewDTO) {
@@ -148,27 +146,49 @@ public class OrderService {
     }
 
     private OrderResponseDTO toResponseDTO(Order order) {
-        OrderResponseDTO dto = new OrderResponseDTO();
-        dto.setOrderId(order.getId());
-        dto.setUserId(order.getUserId());
-        dto.setOrderPrice(order.getOrderPrice());
-        dto.setCreatedAt(order.getCreatedAt());
-        dto.setOverallStatus(order.getOverallStatus());
-        dto.setAddress(order.getAddress());
-        dto.setPaymentMethod(order.getPaymentMethod());
-        dto.setPaymentDetails(order.getPaymentDetails());
-
-        List<OrderItemDTO> itemDTOs = order.getItems().stream()
-                .map(this::toOrderItemDTO)
-                .collect(Collectors.toList());
-        dto.setItems(itemDTOs);
+        return toResponseDTOs(List.of(order)).get(0);
+    }
 
-        return dto;
+    // Converts a whole result set with one product lookup and one seller lookup, however many orders and lines
+    private List<OrderResponseDTO> toResponseDTOs(List<Order> orders) {
+        Set<String> productIds = new HashSet<>();
+        Set<String> sellerIds = new HashSet<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getItems()) {
+                productIds.add(item.getProductId());
+                sellerIds.add(item.getSellerId());
+            }
+        }
+        Map<String, Product> products = productService.getProductsByIds(productIds);
+        Map<String, String> sellerNames = sellerIds.isEmpty()
+                ? Collections.emptyMap()
+                : sellerDirectory.getUsernames(sellerIds);
+
+        List<OrderResponseDTO> dtos = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            OrderResponseDTO dto = new OrderResponseDTO();
+            dto.setOrderId(order.getId());
+            dto.setUserId(order.getUserId());
+            dto.setOrderPrice(order.getOrderPrice());
+            dto.setCreatedAt(order.getCreatedAt());
+            dto.setOverallStatus(order.getOverallStatus());
+            dto.setAddress(order.getAddress());
+            dto.setPaymentMethod(order.getPaymentMethod());
+            dto.setPaymentDetails(order.getPaymentDetails());
+            dto.setItems(order.getItems().stream()
+                    .map(item -> toOrderItemDTO(item, products.get(item.getProductId()),
+                            sellerNames.get(item.getSellerId())))
+                    .collect(Collectors.toList()));
+            dtos.add(dto);
+        }
+        return dtos;
     }
 
     // Convert OrderItem -> OrderItemDTO dynamically
-    private OrderItemDTO toOrderItemDTO(OrderItem item) {
-        ProductResponse product = productService.getProductById(item.getProductId());
+    private OrderItemDTO toOrderItemDTO(OrderItem item, Product product, String sellerName) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product not found with id: " + item.getProductId());
+        }
 
         OrderItemDTO dto = new OrderItemDTO();
         dto.setProductId(item.getProductId());
@@ -182,12 +202,7 @@ public class OrderService {
         dto.setReview(item.getReview());
         dto.setSellerId(item.getSellerId());
         dto.setPrice(item.getPrice());
-
-        Seller seller = sellerRepository.findById(item.getSellerId())
-                .orElse(null);
-        if (seller != null) {
-            dto.setSellerName(seller.getUsername());
-        }
+        dto.setSellerName(sellerName);
 
         dto.setDisputeRaised(item.isDisputeRaised());
         dto.setDisputeReason(item.getDisputeReason());
@@ -204,20 +219,29 @@ public class OrderService {
         System.out.println("Orders found: " + orders.size());
         orders.forEach(System.out::println);
 
-        return orders.stream()
-                .map(order -> {
-                    List<OrderItem> sellerItems = order.getItems().stream()
-                            .filter(item -> sellerId.equals(item.getSellerId()))
-                            .collect(Collectors.toList());
+        return toResponseDTOs(onlySellerItems(orders, sellerId));
+    }
 
-                    if (sellerItems.isEmpty()) {
-                        return null; // safety check
-                    }
-                    order.setItems(sellerItems); // only keep seller's items
-                    return toResponseDTO(order);
-                })
-                .filter(dto -> dto != null)
-                .collect(Collectors.toList());
+    // One page of the orders containing a seller's items (only those items), newest first
+    public CursorPage<OrderResponseDTO> getOrdersForSeller(String sellerId, String after, int size) {
+        List<Order> rows = findPage(Criteria.where("items.sellerId").is(sellerId), after, size);
+        List<Order> orders = rows.subList(0, Math.min(size, rows.size()));
+        return new CursorPage<>(toResponseDTOs(onlySellerItems(orders, sellerId)), nextCursor(rows, size), size, null);
+    }
+
+    private List<Order> onlySellerItems(List<Order> orders, String sellerId) {
+        List<Order> withSellerItems = new ArrayList<>();
+        for (Order order : orders) {
+            List<OrderItem> sellerItems = order.getItems().stream()
+                    .filter(item -> sellerId.equals(item.getSellerId()))
+                    .collect(Collectors.toList());
+
+            if (!sellerItems.isEmpty()) {
+                order.setItems(sellerItems); // only keep seller's items
+                withSellerItems.add(order);
+            }
+        }
+        return withSellerItems;
     }
 
     public void updateOrderItemStatusAsSeller(String orderId, String productId, String sellerId, OrderStatus status,
@@ -230,15 +254,12 @@ public class OrderService {
                 .filter(item -> productId.equals(item.getProductId()) && sellerId.equals(item.getSellerId()))
                 .findFirst()
                 .ifPresent(item -> {
-                    item.setStatus(status);
+                    setItemStatus(order, item, status);
                     item.setDeliveryDate(deliveryDate); // update delivery date
                 });
 
         // Check if all items are now shipped
-        boolean allShipped = order.getItems().stream()
-                .allMatch(item -> item.getStatus() == OrderStatus.SHIPPED);
-
-        if (allShipped) {
+        if (allItemsIn(order, OrderStatus.SHIPPED)) {
             order.setOverallStatus(OrderStatus.SHIPPED);
         }
 
@@ -259,16 +280,12 @@ public class OrderService {
                         throw new RuntimeException("Item must be shipped before it can be delivered.");
                     }
 
-                    item.setStatus(status);
+                    setItemStatus(order, item, status);
                     item.setDeliveryDate(LocalDateTime.now());
                 });
 
         // If all items are now DELIVERED or RESOLVED, update overall order status
-        boolean allDelivered = order.getItems().stream()
-                .allMatch(item -> item.getStatus() == OrderStatus.DELIVERED
-                        || item.getStatus() == OrderStatus.RESOLVED);
-
-        if (allDelivered) {
+        if (allItemsIn(order, OrderStatus.DELIVERED, OrderStatus.RESOLVED)) {
             order.setOverallStatus(OrderStatus.DELIVERED);
         }
 
@@ -286,7 +303,7 @@ public class OrderService {
                     if (item.getStatus() != OrderStatus.DELIVERED && item.getStatus() != OrderStatus.SHIPPED) {
                         throw new RuntimeException("Dispute can only be raised for shipped or delivered items.");
                     }
-                    item.setStatus(OrderStatus.DISPUTING);
+                    setItemStatus(order, item, OrderStatus.DISPUTING);
                     item.setDisputeRaised(true);
                     item.setDisputeReason(reason);
                     item.setDisputeDescription(description);
@@ -297,10 +314,30 @@ public class OrderService {
     }
 
     public List<OrderResponseDTO> getAllOrders() {
-        return orderRepository.findAll()
-                .stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(orderRepository.findAll());
+    }
+
+    // One page of every order, newest first
+    public CursorPage<OrderResponseDTO> getAllOrders(String after, int size) {
+        List<Order> rows = findPage(null, after, size);
+        List<Order> orders = rows.subList(0, Math.min(size, rows.size()));
+        return new CursorPage<>(toResponseDTOs(orders), nextCursor(rows, size), size, null);
+    }
+
+    // Up to size + 1 orders after the cursor in (createdAt, _id) order; the extra row tells whether a next page exists
+    private List<Order> findPage(Criteria filter, String after, int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Query query = filter == null ? new Query() : new Query(filter);
+        if (after != null && !after.isBlank()) {
+            query.addCriteria(OrderCursor.decode(after).toCriteria());
+        }
+        return mongoTemplate.find(query.with(OrderCursor.SORT).limit(size + 1), Order.class);
+    }
+
+    private static String nextCursor(List<Order> rows, int size) {
+        return rows.size() > size ? OrderCursor.after(rows.get(size - 1)).encode() : null;
     }
 
     public void resolveDispute(String orderId, String productId) {
@@ -314,24 +351,65 @@ public class OrderService {
                     if (item.getStatus() != OrderStatus.DISPUTING) {
                         throw new RuntimeException("Item is not in dispute.");
                     }
-                    item.setStatus(OrderStatus.RESOLVED); // or COMPLETED
+                    setItemStatus(order, item, OrderStatus.RESOLVED); // or COMPLETED
                     item.setDisputeRaised(false);
                     //item.setDisputeReason(null);
                     //item.setDisputeDescription(null);
                     item.setDisputeRaisedAt(LocalDateTime.now());
                 });
 
-
         // After resolving, check if all items are now DELIVERED or RESOLVED
-        boolean allCompleted = order.getItems().stream()
-                .allMatch(i -> i.getStatus() == OrderStatus.DELIVERED
-                        || i.getStatus() == OrderStatus.RESOLVED);
-
-        if (allCompleted) {
+        if (allItemsIn(order, OrderStatus.DELIVERED, OrderStatus.RESOLVED)) {
             order.setOverallStatus(OrderStatus.COMPLETED);
         }
 
         orderRepository.save(order);
     }
 
+    // Moves one item to a new status, adjusting the per-status counts with it
+    private void setItemStatus(Order order, OrderItem item, OrderStatus status) {
+        Map<OrderStatus, Integer> counts = itemStatusCounts(order);
+        if (item.getStatus() != null) {
+            counts.computeIfPresent(item.getStatus(), (s, n) -> n > 1 ? n - 1 : null);
+        }
+        if (status != null) {
+            counts.merge(status, 1, Integer::sum);
+        }
+        item.setStatus(status);
+        order.setItemStatusCounts(counts);
+    }
+
+    // The kept per-status counts, or counted from the items for an order placed before they were kept
+    private static Map<OrderStatus, Integer> itemStatusCounts(Order order) {
+        Map<OrderStatus, Integer> counts = order.getItemStatusCounts();
+        return counts == null || counts.isEmpty() ? countItemStatuses(order.getItems()) : counts;
+    }
+
+    private static Map<OrderStatus, Integer> countItemStatuses(List<OrderItem> items) {
+        Map<OrderStatus, Integer> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderItem item : items) {
+            if (item.getStatus() != null) {
+                counts.merge(item.getStatus(), 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    private static boolean allItemsIn(Order order, OrderStatus... statuses) {
+        Map<OrderStatus, Integer> counts = itemStatusCounts(order);
+        int matching = 0;
+        for (OrderStatus status : statuses) {
+            matching += counts.getOrDefault(status, 0);
+        }
+        return matching == order.getItems().size();
+    }
+
+    // COMPLETED once something arrived and nothing is pending, in transit or disputed
+    static OrderStatus buyerStatus(Map<OrderStatus, Integer> counts) {
+        int open = counts.getOrDefault(OrderStatus.PENDING, 0) + counts.getOrDefault(OrderStatus.SHIPPED, 0)
+                + counts.getOrDefault(OrderStatus.DISPUTING, 0);
+        int arrived = counts.getOrDefault(OrderStatus.DELIVERED, 0) + counts.getOrDefault(OrderStatus.RESOLVED, 0);
+        return open == 0 && arrived > 0 ? OrderStatus.COMPLETED : OrderStatus.INCOMPLETE;
+    }
+
 }
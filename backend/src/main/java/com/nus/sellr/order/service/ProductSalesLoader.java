@@ -0,0 +1,46 @@
+package com.nus.sellr.order.service;
+
+import com.nus.sellr.order.entity.Order;
+import com.nus.sellr.product.search.ProductPopularity;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sums units sold per product from order items at startup and hands the totals to
+ * ProductPopularity, which keeps them current from each checkout afterwards.
+ */
+@Component
+public class ProductSalesLoader {
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductPopularity productPopularity;
+
+    public ProductSalesLoader(MongoTemplate mongoTemplate, ProductPopularity productPopularity) {
+        this.mongoTemplate = mongoTemplate;
+        this.productPopularity = productPopularity;
+    }
+
+    @PostConstruct
+    public void load() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.unwind("items"),
+                Aggregation.group("items.productId").sum("items.quantity").as("sold"));
+        try {
+            Map<String, Long> loaded = new HashMap<>();
+            for (Document row : mongoTemplate.aggregate(aggregation, Order.class, Document.class)) {
+                if (row.get("_id") instanceof String && row.get("sold") instanceof Number) {
+                    loaded.put(row.getString("_id"), ((Number) row.get("sold")).longValue());
+                }
+            }
+            productPopularity.load(loaded);
+        } catch (RuntimeException e) {
+            System.out.println("Product popularity unavailable, ranking by text only: " + e.getMessage());
+        }
+    }
+}
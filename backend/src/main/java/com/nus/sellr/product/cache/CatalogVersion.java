@@ -0,0 +1,31 @@
+package com.nus.sellr.product.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of everything the catalog endpoints serve, bumped once ProductIndexUpdater has
+ * applied a batch of product changes. Bumping after the change is visible means a version
+ * can label newer data than it was issued for, never older. The instance id keeps two
+ * instances (each counting from zero) from issuing the same tag for different data.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong version = new AtomicLong();
+
+    public long get() {
+        return version.get();
+    }
+
+    public void bump() {
+        version.incrementAndGet();
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+}
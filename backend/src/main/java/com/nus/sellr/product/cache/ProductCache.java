@@ -0,0 +1,157 @@
+package com.nus.sellr.product.cache;
+
+import com.nus.sellr.common.cache.LruCache;
+import com.nus.sellr.product.dto.ProductCacheStats;
+import com.nus.sellr.product.entity.Product;
+import com.nus.sellr.product.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache of product documents by id. Concurrent misses for the same id
+ * share one Mongo read. Callers always get their own copy, so mutating a returned
+ * product (e.g. editing fields before saveProduct) never leaks into the cache.
+ */
+@Component
+public class ProductCache {
+
+    private final ProductRepository productRepository;
+    private final LruCache<String, Product> entries;
+    private final ConcurrentMap<String, CompletableFuture<Product>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    // Bumped on every invalidation; a batch load only caches what it read if nothing changed meanwhile
+    private long generation;
+
+    public ProductCache(ProductRepository productRepository,
+                        @Value("${sellr.product-cache.size:10000}") int size,
+                        @Value("${sellr.product-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.productRepository = productRepository;
+        this.entries = new LruCache<>(size, Duration.ofSeconds(ttlSeconds));
+    }
+
+    public Optional<Product> get(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Product cached = entries.get(id);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(new Product(cached));
+        }
+        misses.increment();
+
+        CompletableFuture<Product> load = new CompletableFuture<>();
+        CompletableFuture<Product> existing = inFlight.putIfAbsent(id, load);
+        if (existing != null) {
+            coalesced.increment();
+            return Optional.ofNullable(await(existing)).map(Product::new);
+        }
+
+        try {
+            loads.increment();
+            Product loaded = productRepository.findById(id).orElse(null);
+            synchronized (this) {
+                // skip caching if the id was invalidated while we were reading
+                if (inFlight.remove(id, load) && loaded != null) {
+                    entries.put(id, new Product(loaded));
+                }
+            }
+            load.complete(loaded);
+            return Optional.ofNullable(loaded).map(Product::new);
+        } catch (RuntimeException e) {
+            inFlight.remove(id, load);
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Products for the given ids keyed by id; misses are fetched with one findAllById ($in) query.
+    // Ids with no product are simply absent from the result.
+    public Map<String, Product> getAll(Collection<String> ids) {
+        Map<String, Product> result = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id == null || result.containsKey(id) || missing.contains(id)) {
+                continue;
+            }
+            Product cached = entries.get(id);
+            if (cached != null) {
+                hits.increment();
+                result.put(id, new Product(cached));
+            } else {
+                misses.increment();
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long startGeneration;
+        synchronized (this) {
+            startGeneration = generation;
+        }
+        loads.increment();
+        Iterable<Product> loaded = productRepository.findAllById(new ArrayList<>(missing));
+        synchronized (this) {
+            boolean unchanged = startGeneration == generation;
+            for (Product product : loaded) {
+                if (unchanged) {
+                    entries.put(product.getId(), new Product(product));
+                }
+                result.put(product.getId(), product);
+            }
+        }
+        return result;
+    }
+
+    public void invalidate(String id) {
+        synchronized (this) {
+            generation++;
+            entries.invalidate(id);
+            inFlight.remove(id);
+        }
+    }
+
+    public void clear() {
+        synchronized (this) {
+            generation++;
+            entries.clear();
+            inFlight.clear();
+        }
+    }
+
+    public ProductCacheStats getStats() {
+        return new ProductCacheStats(hits.sum(), misses.sum(), loads.sum(), coalesced.sum(), entries.size());
+    }
+
+    private static Product await(CompletableFuture<Product> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
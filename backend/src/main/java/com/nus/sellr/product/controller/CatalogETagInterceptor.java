@@ -0,0 +1,65 @@
+package com.nus.sellr.product.controller;
+
+import com.nus.sellr.product.cache.CatalogVersion;
+import com.nus.sellr.product.event.ProductEventRelay;
+import com.nus.sellr.user.cache.SellerDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Conditional GET for the catalog endpoints. Every response is tagged with the catalog
+ * and seller-directory versions, and an If-None-Match that still matches is answered
+ * 304 here, before the controller runs, so an unchanged page costs no Mongo read and
+ * no serialization. Registered for GET /api/products/** in WebConfig.
+ * The catalog version only follows other instances' writes when they are relayed, so
+ * tags are issued only in multi-node mode or when sellr.catalog-etag.single-instance
+ * says there are no other instances; otherwise requests pass through untagged.
+ */
+@Component
+public class CatalogETagInterceptor implements HandlerInterceptor {
+
+    private final CatalogVersion catalogVersion;
+    private final SellerDirectory sellerDirectory;
+    private final boolean enabled;
+
+    public CatalogETagInterceptor(CatalogVersion catalogVersion, SellerDirectory sellerDirectory,
+                                  ProductEventRelay productEventRelay,
+                                  @Value("${sellr.catalog-etag.single-instance:false}") boolean singleInstance) {
+        this.catalogVersion = catalogVersion;
+        this.sellerDirectory = sellerDirectory;
+        this.enabled = productEventRelay.isEnabled() || singleInstance;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled) {
+            return true;
+        }
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        // revalidate on every use; also stops Spring Security from adding no-store
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        return !new ServletWebRequest(request, response).checkNotModified(etag(request));
+    }
+
+    String etag(HttpServletRequest request) {
+        StringBuilder tag = new StringBuilder("\"")
+                .append(catalogVersion.getInstanceId()).append('-')
+                .append(catalogVersion.get()).append('-')
+                .append(sellerDirectory.getVersion());
+        // GET /api/products has a JSON and an NDJSON representation
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept != null && accept.contains("ndjson")) {
+            tag.append("-ndjson");
+        }
+        return tag.append('"').toString();
+    }
+}
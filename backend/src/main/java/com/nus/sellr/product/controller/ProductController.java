@@ -1,15 +1,36 @@
 package com.nus.sellr.product.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nus.sellr.common.dto.CursorPage;
+import com.nus.sellr.product.dto.CategoryCountsResponse;
+import com.nus.sellr.product.dto.ProductBulkUpdateResult;
+import com.nus.sellr.product.dto.ProductCacheStats;
+import com.nus.sellr.product.dto.ProductImportResult;
+import com.nus.sellr.product.dto.ProductPatch;
 import com.nus.sellr.product.dto.ProductRequest;
 import com.nus.sellr.product.dto.ProductResponse;
+import com.nus.sellr.product.dto.ProductSuggestion;
+import com.nus.sellr.product.dto.ProductSummary;
+import com.nus.sellr.product.importer.ProductImporter;
+import com.nus.sellr.product.search.PriceRange;
+import com.nus.sellr.product.search.ProductSearchIndex;
+import com.nus.sellr.product.search.SearchCountMode;
+import com.nus.sellr.product.search.SearchResultCache;
 import com.nus.sellr.product.service.ProductService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -17,10 +38,19 @@ import java.util.List;
 
 public class ProductController {
 
+    private static final int STREAM_FLUSH_EVERY = 100;
+
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final ProductImporter productImporter;
+    private final SearchResultCache searchResultCache;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ObjectMapper objectMapper,
+                             ProductImporter productImporter, SearchResultCache searchResultCache) {
         this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.productImporter = productImporter;
+        this.searchResultCache = searchResultCache;
     }
 
     // Create a new product
@@ -30,6 +60,26 @@ public class ProductController {
         return ResponseEntity.ok(createdProduct);
     }
 
+    // Bulk import for a seller's catalog: CSV (with a header row) or NDJSON, streamed from the request body.
+    // Bad rows are skipped and listed in the report; the rest are inserted in batches.
+    @PostMapping(value = "/bulk", consumes = {ProductImporter.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ProductImportResult> importProducts(
+            @RequestParam String sellerId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        boolean ndjson = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON);
+        ProductImportResult result = ndjson
+                ? productImporter.importNdjson(body, sellerId)
+                : productImporter.importCsv(body, sellerId);
+        return ResponseEntity.ok(result);
+    }
+
+    // Bulk price/stock/category changes, e.g. [{"id": "...", "price": 9.5}, {"id": "...", "stockDelta": 20}]
+    @PatchMapping("/bulk")
+    public ResponseEntity<ProductBulkUpdateResult> bulkUpdateProducts(@RequestBody List<ProductPatch> patches) {
+        return ResponseEntity.ok(productService.bulkUpdate(patches));
+    }
+
     // Get all products
     @GetMapping
     public ResponseEntity<List<ProductResponse>> getAllProducts() {
@@ -37,6 +87,35 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    // GET /api/products with "Accept: application/x-ndjson" gets the stream below
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProductsByAccept() {
+        return streamAllProducts();
+    }
+
+    // Get all products as NDJSON (one product per line), written as the Mongo cursor is read.
+    // Mapped whatever the Accept header, so /stream never falls through to /{id}.
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        StreamingResponseBody body = out -> {
+            int[] written = {0};
+            productService.streamAllProducts(product -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(product));
+                    out.write('\n');
+                    // flush the first row right away, then in batches
+                    if (written[0]++ % STREAM_FLUSH_EVERY == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     // Get product by ID
     @GetMapping("/{id}")
     public ResponseEntity<ProductResponse> getProductById(@PathVariable String id) {
@@ -61,31 +140,107 @@ public class ProductController {
     }
 
     // 🔎 Search / Browse (filters + sort + pagination)
+    // The JSON body is cached per normalized query, so repeated popular searches skip the query entirely
     @GetMapping("/search")
-    public ResponseEntity<Page<ProductResponse>> searchProducts(
+    public ResponseEntity<byte[]> searchProducts(
             @RequestParam(required = false) String q,
             @RequestParam(required = false) String category,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "createdAt,desc") String sort      // e.g. "price,asc" or "name,asc"
+            @RequestParam(defaultValue = "createdAt,desc") String sort, // e.g. "price,asc", "name,asc" or "relevance"
+            @RequestParam(defaultValue = "false") boolean facets, // also return category counts and price buckets
+            @RequestParam(defaultValue = "false") boolean fuzzy,  // tolerate typos in product names
+            @RequestParam(required = false) Double minPrice,     // inclusive price range, either end optional
+            @RequestParam(required = false) Double maxPrice
     ) {
-        String[] s = sort.split(",", 2);
-        Sort springSort = (s.length == 2) ?
-                Sort.by(Sort.Direction.fromString(s[1]), s[0]) : Sort.by("createdAt").descending();
+        Pageable pageable = PageRequest.of(page, size, parseSort(sort));
+        PriceRange price = PriceRange.of(minPrice, maxPrice);
+        SearchResultCache.Key key = SearchResultCache.key(q, category, price, pageable, fuzzy, facets);
+        byte[] body = searchResultCache.get(key);
+        if (body == null) {
+            long generation = searchResultCache.generation();
+            Page<ProductResponse> results = facets
+                    ? productService.searchWithFacets(q, category, price, pageable, fuzzy)
+                    : productService.search(q, category, price, pageable, fuzzy);
+            try {
+                body = objectMapper.writeValueAsBytes(results);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+            searchResultCache.put(key, body, generation);
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 
-        Pageable pageable = PageRequest.of(page, size, springSort);
-        Page<ProductResponse> results = productService.search(q, category, pageable);
+    // Keyset pagination: pass nextCursor back as "after"; the total is only counted when count=true,
+    // and with estimate=true counting stops at the configured cap (totalEstimated is then set)
+    @GetMapping("/search/cursor")
+    public ResponseEntity<CursorPage<ProductResponse>> searchProductsByCursor(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "createdAt,desc") String sort,
+            @RequestParam(defaultValue = "false") boolean count,
+            @RequestParam(defaultValue = "false") boolean estimate
+    ) {
+        Sort.Order order = parseSort(sort).iterator().next();
+        SearchCountMode countMode = !count ? SearchCountMode.NONE
+                : estimate ? SearchCountMode.ESTIMATE : SearchCountMode.EXACT;
+        CursorPage<ProductResponse> results = productService.searchAfter(q, category, order, after, size, countMode);
         return ResponseEntity.ok(results);
     }
 
+    private Sort parseSort(String sort) {
+        String[] s = sort.split(",", 2);
+        if (ProductSearchIndex.RELEVANCE.equals(s[0])) {
+            return Sort.by(Sort.Direction.DESC, ProductSearchIndex.RELEVANCE);
+        }
+        return (s.length == 2) ?
+                Sort.by(Sort.Direction.fromString(s[1]), s[0]) : Sort.by("createdAt").descending();
+    }
+
     // Get products by seller
     @GetMapping("/my-products")
     public List<ProductResponse> getProductsBySeller(@RequestParam String sellerId) {
         return productService.getProductsBySellerId(sellerId);
     }
 
+    // Paged seller catalog without descriptions; pass nextCursor back as "after"
+    @GetMapping("/my-products/summary")
+    public CursorPage<ProductSummary> getProductSummariesBySeller(@RequestParam String sellerId,
+                                                                  @RequestParam(required = false) String after,
+                                                                  @RequestParam(defaultValue = "50") int size) {
+        return productService.getProductSummariesBySellerId(sellerId, after, size);
+    }
+
+    // Seller's products below the low-stock threshold, lowest stock first
+    @GetMapping("/low-stock")
+    public List<ProductResponse> getLowStockProducts(@RequestParam String sellerId) {
+        return productService.getLowStockProducts(sellerId);
+    }
+
     @GetMapping("/categories")
     public List<String> getCategories() {
         return productService.getAllCategories();
     }
+
+    // Category names with product counts and the registry version they were read at
+    @GetMapping("/categories/counts")
+    public CategoryCountsResponse getCategoryCounts() {
+        return productService.getCategoryCounts();
+    }
+
+    // Hit/miss counters for the product-by-id cache
+    @GetMapping("/cache/stats")
+    public ProductCacheStats getCacheStats() {
+        return productService.getCacheStats();
+    }
+
+    // Autocomplete for the search box: product names and categories with a word starting with the prefix
+    @GetMapping("/suggest")
+    public List<ProductSuggestion> suggest(@RequestParam(defaultValue = "") String prefix,
+                                           @RequestParam(defaultValue = "8") int limit) {
+        return productService.suggest(prefix, limit);
+    }
 }
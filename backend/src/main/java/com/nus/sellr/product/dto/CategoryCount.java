@@ -0,0 +1,24 @@
+package com.nus.sellr.product.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+public class CategoryCount implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String name;
+    private long count;
+
+    public CategoryCount() {
+    }
+
+    public CategoryCount(String name, long count) {
+        this.name = name;
+        this.count = count;
+    }
+}
@@ -0,0 +1,21 @@
+package com.nus.sellr.product.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class CategoryCountsResponse {
+    private long version;   // bumped whenever any category count changes
+    private List<CategoryCount> categories;
+
+    public CategoryCountsResponse() {
+    }
+
+    public CategoryCountsResponse(long version, List<CategoryCount> categories) {
+        this.version = version;
+        this.categories = categories;
+    }
+}
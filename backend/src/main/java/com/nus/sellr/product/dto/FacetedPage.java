@@ -0,0 +1,21 @@
+package com.nus.sellr.product.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+// A search results page serialized exactly like Page, plus a "facets" object
+public class FacetedPage<T> extends PageImpl<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SearchFacets facets;
+
+    public FacetedPage(Page<T> page, SearchFacets facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+
+    public SearchFacets getFacets() {
+        return facets;
+    }
+}
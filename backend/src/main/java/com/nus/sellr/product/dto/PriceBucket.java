@@ -0,0 +1,26 @@
+package com.nus.sellr.product.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+public class PriceBucket implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private double from;   // inclusive
+    private Double to;     // exclusive; null for the open-ended top bucket
+    private long count;
+
+    public PriceBucket() {
+    }
+
+    public PriceBucket(double from, Double to, long count) {
+        this.from = from;
+        this.to = to;
+        this.count = count;
+    }
+}
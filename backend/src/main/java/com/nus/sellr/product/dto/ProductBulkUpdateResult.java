@@ -0,0 +1,16 @@
+package com.nus.sellr.product.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class ProductBulkUpdateResult {
+    private long matched;
+    private long modified;
+    private List<String> missingIds = new ArrayList<>();  // ids with no product to update
+    private List<String> insufficientStockIds = new ArrayList<>();  // stockDelta would take stock below zero
+}
@@ -0,0 +1,30 @@
+package com.nus.sellr.product.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ProductCacheStats {
+    private long hits;
+    private long misses;
+    private long loads;       // Mongo reads actually issued
+    private long coalesced;   // misses that waited on another caller's load
+    private int size;
+    private double hitRatio;
+    private double missRatio;
+
+    public ProductCacheStats() {
+    }
+
+    public ProductCacheStats(long hits, long misses, long loads, long coalesced, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.loads = loads;
+        this.coalesced = coalesced;
+        this.size = size;
+        long requests = hits + misses;
+        this.hitRatio = requests == 0 ? 0 : (double) hits / requests;
+        this.missRatio = requests == 0 ? 0 : (double) misses / requests;
+    }
+}
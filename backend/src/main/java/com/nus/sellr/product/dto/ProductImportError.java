@@ -0,0 +1,19 @@
+package com.nus.sellr.product.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ProductImportError {
+    private long row;        // 1-based data row (CSV header and blank lines not counted)
+    private String message;
+
+    public ProductImportError() {
+    }
+
+    public ProductImportError(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+}
@@ -0,0 +1,17 @@
+package com.nus.sellr.product.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class ProductImportResult {
+    private long imported;
+    private long failed;
+    private List<ProductImportError> errors = new ArrayList<>();
+    private boolean errorsTruncated;  // more rows failed than are listed in errors
+    private Long abortedAtRow;  // the upload could not be read past this row; nothing from it on was imported
+}
@@ -0,0 +1,26 @@
+package com.nus.sellr.product.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Partial update for one product in a bulk request; null fields are left unchanged
+@Getter
+@Setter
+public class ProductPatch {
+    private String id;
+    private Double price;
+    private Integer stock;       // absolute stock level ($set)
+    private Integer stockDelta;  // relative change ($inc); not combined with stock
+    private String category;
+
+    public ProductPatch() {
+    }
+
+    public ProductPatch(String id, Double price, Integer stock, Integer stockDelta, String category) {
+        this.id = id;
+        this.price = price;
+        this.stock = stock;
+        this.stockDelta = stockDelta;
+        this.category = category;
+    }
+}
@@ -0,0 +1,21 @@
+package com.nus.sellr.product.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ProductSuggestion {
+    private String text;
+    private String type;        // "product" or "category"
+    private String productId;   // null for category suggestions
+
+    public ProductSuggestion() {
+    }
+
+    public ProductSuggestion(String text, String type, String productId) {
+        this.text = text;
+        this.type = type;
+        this.productId = productId;
+    }
+}
@@ -0,0 +1,20 @@
+package com.nus.sellr.product.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Seller catalog row: a ProductResponse without the description text
+@Getter
+@Setter
+public class ProductSummary {
+    private String id;
+    private String name;
+    private double price;
+    private String imageUrl;
+    private String category;
+    private int stock;
+    private boolean lowStock;
+
+    public ProductSummary() {
+    }
+}
@@ -0,0 +1,27 @@
+package com.nus.sellr.product.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.List;
+
+// Category counts ignore the selected category (so the other categories stay visible);
+// price buckets are for the query within the selected category
+@Getter
+@Setter
+public class SearchFacets implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<CategoryCount> categories;
+    private List<PriceBucket> priceBuckets;
+
+    public SearchFacets() {
+    }
+
+    public SearchFacets(List<CategoryCount> categories, List<PriceBucket> priceBuckets) {
+        this.categories = categories;
+        this.priceBuckets = priceBuckets;
+    }
+}
@@ -3,10 +3,17 @@ package com.nus.sellr.product.entity;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
 @Getter
 @Setter
 @Document(collection = "products")
+// seller catalog listing: equality on sellerId, keyset range and sort on _id
+@CompoundIndex(name = "sellerId_id", def = "{'sellerId': 1, '_id': 1}")
 public class Product {
     @Id
     private String id;
@@ -17,6 +24,9 @@ public class Product {
     private String category;
     private int stock;
     private String sellerId;
+    // set on every write; lets a restarted search index replay only what changed since its snapshot
+    @Indexed
+    private Instant updatedAt;
 
     public Product() {
     }
@@ -31,4 +41,16 @@ public class Product {
         this.stock = stock;
         this.sellerId = sellerId;
     }
+
+    public Product(Product other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.description = other.description;
+        this.price = other.price;
+        this.imageUrl = other.imageUrl;
+        this.category = other.category;
+        this.stock = other.stock;
+        this.sellerId = other.sellerId;
+        this.updatedAt = other.updatedAt;
+    }
 }
@@ -4,11 +4,18 @@ import com.nus.sellr.common.entity.BaseEntity;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Getter
 @Setter
 @Document(collection = "product_reviews")
+// a product's reviews newest first, and the one-review-per-buyer check
+@CompoundIndexes({
+    @CompoundIndex(name = "productId_dateCreated", def = "{'productId': 1, 'dateCreated': -1}"),
+    @CompoundIndex(name = "productId_userId", def = "{'productId': 1, 'userId': 1}")
+})
 public class ProductReview extends BaseEntity {
 
     @Id
@@ -0,0 +1,54 @@
+package com.nus.sellr.product.event;
+
+import com.nus.sellr.product.entity.Product;
+
+/**
+ * A product was saved or deleted. Local saves carry the saved document; events
+ * relayed from other instances carry only the id, and listeners reload the product.
+ */
+public final class ProductChangeEvent {
+
+    public enum Type { SAVED, DELETED }
+
+    private final Type type;
+    private final String productId;
+    private final Product product;
+    private final boolean remote;
+
+    private ProductChangeEvent(Type type, String productId, Product product, boolean remote) {
+        this.type = type;
+        this.productId = productId;
+        this.product = product;
+        this.remote = remote;
+    }
+
+    public static ProductChangeEvent saved(Product product) {
+        return new ProductChangeEvent(Type.SAVED, product.getId(), new Product(product), false);
+    }
+
+    public static ProductChangeEvent deleted(String productId) {
+        return new ProductChangeEvent(Type.DELETED, productId, null, false);
+    }
+
+    // Event published by another instance; a save has to be reloaded from Mongo
+    public static ProductChangeEvent remote(Type type, String productId) {
+        return new ProductChangeEvent(type, productId, null, true);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    // Snapshot of the saved product, or null for deletes and remote events
+    public Product getProduct() {
+        return product;
+    }
+
+    public boolean isRemote() {
+        return remote;
+    }
+}
@@ -0,0 +1,9 @@
+package com.nus.sellr.product.event;
+
+import java.util.List;
+
+// Receives product changes from ProductEventBus, in batches with at most one event per product id
+public interface ProductChangeListener {
+
+    void onProductChanges(List<ProductChangeEvent> batch);
+}
@@ -0,0 +1,132 @@
+package com.nus.sellr.product.event;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process, asynchronous product change bus. Writers publish after their Mongo
+ * write and return; a single background thread delivers the pending events to every
+ * ProductChangeListener after batchDelayMs. Events for the same product id that
+ * arrive within one window are coalesced, so a burst of stock updates to one product
+ * costs listeners one refresh. In multi-node mode the relay also copies local events
+ * to a capped Mongo collection and feeds back events written by other instances.
+ */
+@Component
+public class ProductEventBus {
+
+    private final List<ProductChangeListener> listeners;
+    private final ProductEventRelay relay;
+    private final long batchDelayMs;
+    private final int maxBatchSize;
+
+    // product id -> latest pending event, in first-arrival order
+    private final Map<String, ProductChangeEvent> pending = new LinkedHashMap<>();
+    // product id -> latest pending event written by this instance; kept apart so a remote event for the
+    // same id in the same window cannot stop this instance's own write from being relayed
+    private final Map<String, ProductChangeEvent> pendingLocal = new LinkedHashMap<>();
+    private boolean drainScheduled;
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-event-bus");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProductEventBus(List<ProductChangeListener> listeners,
+                           ProductEventRelay relay,
+                           @Value("${sellr.product-events.batch-delay-ms:50}") long batchDelayMs,
+                           @Value("${sellr.product-events.max-batch-size:500}") int maxBatchSize) {
+        this.listeners = listeners;
+        this.relay = relay;
+        this.batchDelayMs = Math.max(0, batchDelayMs);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    @PostConstruct
+    public void start() {
+        relay.start(this::enqueue);
+    }
+
+    @PreDestroy
+    public void stop() {
+        relay.stop();
+        worker.shutdown();
+        flush();
+    }
+
+    public void publish(ProductChangeEvent event) {
+        if (event == null || event.getProductId() == null) {
+            return;
+        }
+        enqueue(List.of(event));
+    }
+
+    public void publishAll(List<ProductChangeEvent> events) {
+        enqueue(events);
+    }
+
+    // Delivers everything pending on the calling thread (shutdown, tests)
+    public void flush() {
+        drain();
+    }
+
+    private void enqueue(List<ProductChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        synchronized (pending) {
+            for (ProductChangeEvent event : events) {
+                // the latest event for an id wins; remove first so it keeps no stale position
+                pending.remove(event.getProductId());
+                pending.put(event.getProductId(), event);
+                if (!event.isRemote()) {
+                    pendingLocal.remove(event.getProductId());
+                    pendingLocal.put(event.getProductId(), event);
+                }
+            }
+            if (drainScheduled || worker.isShutdown()) {
+                return;
+            }
+            drainScheduled = true;
+        }
+        worker.schedule(this::drain, batchDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void drain() {
+        List<ProductChangeEvent> events;
+        List<ProductChangeEvent> local;
+        synchronized (pending) {
+            drainScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            events = new ArrayList<>(pending.values());
+            local = new ArrayList<>(pendingLocal.values());
+            pending.clear();
+            pendingLocal.clear();
+        }
+
+        relay.publish(local);
+
+        for (int from = 0; from < events.size(); from += maxBatchSize) {
+            List<ProductChangeEvent> batch = events.subList(from, Math.min(from + maxBatchSize, events.size()));
+            for (ProductChangeListener listener : listeners) {
+                try {
+                    listener.onProductChanges(batch);
+                } catch (RuntimeException e) {
+                    System.out.println("Product change listener " + listener.getClass().getSimpleName()
+                            + " failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
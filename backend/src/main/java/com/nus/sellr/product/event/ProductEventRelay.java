@@ -0,0 +1,172 @@
+package com.nus.sellr.product.event;
+
+import com.mongodb.CursorType;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Shares product change events between instances through a capped Mongo collection.
+ * Each instance appends its own events in one insert per bus batch and tails the
+ * collection with a tailable-await cursor, handing other instances' events back to
+ * the bus. Inactive unless sellr.product-events.mode=multi-node.
+ * Events are invalidations, so re-reading a few after a reconnect is harmless.
+ */
+@Component
+public class ProductEventRelay {
+
+    static final String FIELD_PRODUCT_ID = "productId";
+    static final String FIELD_TYPE = "type";
+    static final String FIELD_ORIGIN = "origin";
+
+    private static final long RECONNECT_DELAY_MS = 1000;
+    // how far back to re-read after a reconnect or at startup, to cover clock skew between instances
+    private static final long REPLAY_WINDOW_MS = 5000;
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final String collectionName;
+    private final long collectionBytes;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private Thread tailer;
+
+    public ProductEventRelay(MongoTemplate mongoTemplate,
+                             @Value("${sellr.product-events.mode:local}") String mode,
+                             @Value("${sellr.product-events.collection:product_events}") String collectionName,
+                             @Value("${sellr.product-events.collection-bytes:16777216}") long collectionBytes) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = "multi-node".equalsIgnoreCase(mode);
+        this.collectionName = collectionName;
+        this.collectionBytes = collectionBytes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    // Starts tailing other instances' events into sink; a no-op in local mode
+    public synchronized void start(Consumer<List<ProductChangeEvent>> sink) {
+        if (!enabled || running) {
+            return;
+        }
+        try {
+            if (!mongoTemplate.collectionExists(collectionName)) {
+                CollectionOptions capped = CollectionOptions.empty().capped().size(collectionBytes);
+                mongoTemplate.createCollection(collectionName, capped);
+            }
+        } catch (RuntimeException e) {
+            // another instance may have created it first; tailing reports any real problem
+            System.out.println("Could not create " + collectionName + ": " + e.getMessage());
+        }
+        running = true;
+        tailer = new Thread(() -> tail(sink), "product-event-relay");
+        tailer.setDaemon(true);
+        tailer.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (tailer != null) {
+            tailer.interrupt();
+            tailer = null;
+        }
+    }
+
+    // Appends this instance's events; failures are logged so a Mongo hiccup never fails local delivery
+    public void publish(List<ProductChangeEvent> events) {
+        if (!enabled || events.isEmpty()) {
+            return;
+        }
+        List<Document> documents = new ArrayList<>(events.size());
+        for (ProductChangeEvent event : events) {
+            documents.add(toDocument(event));
+        }
+        try {
+            mongoTemplate.getCollection(collectionName).insertMany(documents);
+        } catch (RuntimeException e) {
+            System.out.println("Could not relay " + documents.size() + " product events: " + e.getMessage());
+        }
+    }
+
+    private void tail(Consumer<List<ProductChangeEvent>> sink) {
+        Date since = new Date(System.currentTimeMillis() - REPLAY_WINDOW_MS);
+        while (running) {
+            MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName);
+            try (MongoCursor<Document> cursor = collection.find(Filters.gt("_id", new ObjectId(since)))
+                    .cursorType(CursorType.TailableAwait)
+                    .noCursorTimeout(true)
+                    .iterator()) {
+                while (running) {
+                    // returns null when the await times out with nothing new
+                    Document document = cursor.tryNext();
+                    if (document == null) {
+                        if (cursor.getServerCursor() == null) {
+                            // a tailable cursor on an empty result is closed straight away; reopen shortly
+                            break;
+                        }
+                        continue;
+                    }
+                    since = new Date(document.getObjectId("_id").getDate().getTime() - REPLAY_WINDOW_MS);
+                    ProductChangeEvent event = fromDocument(document, instanceId);
+                    if (event != null) {
+                        sink.accept(List.of(event));
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                System.out.println("Product event relay lost its cursor, retrying: " + e.getMessage());
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(RECONNECT_DELAY_MS);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    Document toDocument(ProductChangeEvent event) {
+        return new Document("_id", new ObjectId())
+                .append(FIELD_PRODUCT_ID, event.getProductId())
+                .append(FIELD_TYPE, event.getType().name())
+                .append(FIELD_ORIGIN, instanceId);
+    }
+
+    // Null for this instance's own events and for malformed documents
+    static ProductChangeEvent fromDocument(Document document, String ownInstanceId) {
+        if (ownInstanceId.equals(document.getString(FIELD_ORIGIN))) {
+            return null;
+        }
+        String productId = document.getString(FIELD_PRODUCT_ID);
+        String type = document.getString(FIELD_TYPE);
+        if (productId == null || type == null) {
+            return null;
+        }
+        try {
+            return ProductChangeEvent.remote(ProductChangeEvent.Type.valueOf(type), productId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.nus.sellr.product.event;
+
+import com.nus.sellr.product.cache.CatalogVersion;
+import com.nus.sellr.product.cache.ProductCache;
+import com.nus.sellr.product.entity.Product;
+import com.nus.sellr.product.repository.ProductRepository;
+import com.nus.sellr.product.search.LowStockIndex;
+import com.nus.sellr.product.search.ProductCategoryRegistry;
+import com.nus.sellr.product.search.ProductSearchIndex;
+import com.nus.sellr.product.search.ProductSuggester;
+import com.nus.sellr.product.search.SearchCountCache;
+import com.nus.sellr.product.search.SearchFacetCache;
+import com.nus.sellr.product.search.SearchResultCache;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the product caches and in-memory search structures in step with product
+ * writes, one bus batch at a time: saves relayed without a snapshot are reloaded
+ * with a single findAllById, and the per-query caches are dropped once per batch.
+ * Finally the catalog version moves on, which changes the ETag of every catalog response.
+ */
+@Component
+public class ProductIndexUpdater implements ProductChangeListener {
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final SearchCountCache searchCountCache;
+    private final SearchFacetCache searchFacetCache;
+    private final ProductCategoryRegistry categoryRegistry;
+    private final ProductSuggester productSuggester;
+    private final CatalogVersion catalogVersion;
+    private final LowStockIndex lowStockIndex;
+    private final SearchResultCache searchResultCache;
+
+    public ProductIndexUpdater(ProductRepository productRepository,
+                               ProductCache productCache,
+                               ProductSearchIndex productSearchIndex,
+                               SearchCountCache searchCountCache,
+                               SearchFacetCache searchFacetCache,
+                               ProductCategoryRegistry categoryRegistry,
+                               ProductSuggester productSuggester,
+                               CatalogVersion catalogVersion,
+                               LowStockIndex lowStockIndex,
+                               SearchResultCache searchResultCache) {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.productSearchIndex = productSearchIndex;
+        this.searchCountCache = searchCountCache;
+        this.searchFacetCache = searchFacetCache;
+        this.categoryRegistry = categoryRegistry;
+        this.productSuggester = productSuggester;
+        this.catalogVersion = catalogVersion;
+        this.lowStockIndex = lowStockIndex;
+        this.searchResultCache = searchResultCache;
+    }
+
+    @Override
+    public void onProductChanges(List<ProductChangeEvent> batch) {
+        List<Product> saved = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        List<String> toReload = new ArrayList<>();
+        for (ProductChangeEvent event : batch) {
+            if (event.getType() == ProductChangeEvent.Type.DELETED) {
+                deleted.add(event.getProductId());
+            } else if (event.getProduct() != null) {
+                saved.add(event.getProduct());
+            } else {
+                toReload.add(event.getProductId());
+            }
+        }
+        if (!toReload.isEmpty()) {
+            Map<String, Product> reloaded = new HashMap<>();
+            for (Product product : productRepository.findAllById(toReload)) {
+                reloaded.put(product.getId(), product);
+            }
+            for (String id : toReload) {
+                Product product = reloaded.get(id);
+                if (product != null) {
+                    saved.add(product);
+                } else {
+                    // deleted again since the event was written
+                    deleted.add(id);
+                }
+            }
+        }
+
+        // categories whose cached counts may have changed: where each product was and where it is now
+        Set<String> categories = new HashSet<>();
+        boolean categoriesKnown = categoryRegistry.isReady();
+        for (Product product : saved) {
+            categories.add(categoryRegistry.getCategoryOf(product.getId()));
+            categories.add(product.getCategory());
+            productCache.invalidate(product.getId());
+            productSearchIndex.index(product);
+            categoryRegistry.onSaved(product);
+            productSuggester.index(product);
+            lowStockIndex.onSaved(product);
+        }
+        for (String id : deleted) {
+            categories.add(categoryRegistry.getCategoryOf(id));
+            productCache.invalidate(id);
+            productSearchIndex.remove(id);
+            categoryRegistry.onDeleted(id);
+            productSuggester.remove(id);
+            lowStockIndex.onDeleted(id);
+        }
+
+        if (!categoriesKnown) {
+            searchCountCache.clear();
+            searchResultCache.clear();
+        } else {
+            // a null category still drops the counts and pages that span every category
+            for (String category : categories) {
+                searchCountCache.invalidateCategory(category);
+                searchResultCache.invalidateCategory(category);
+            }
+        }
+        searchFacetCache.clear();
+        catalogVersion.bump();
+    }
+}
@@ -0,0 +1,58 @@
+package com.nus.sellr.product.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads NDJSON one line at a time, holding at most maxLineLength characters. Unlike
+ * BufferedReader.readLine, a line over the limit is not buffered whole: the rest of it
+ * is read and dropped, and next() throws LineTooLongException so the caller can
+ * report that row and carry on with the following one.
+ */
+class NdjsonLineReader {
+
+    private final BufferedReader reader;
+    private final int maxLineLength;
+
+    NdjsonLineReader(BufferedReader reader, int maxLineLength) {
+        this.reader = reader;
+        this.maxLineLength = maxLineLength;
+    }
+
+    // Next line without its terminator (\n, \r or \r\n), or null at end of input
+    String next() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder();
+        boolean tooLong = false;
+        while (c != -1 && c != '\n' && c != '\r') {
+            if (line.length() < maxLineLength) {
+                line.append((char) c);
+            } else {
+                tooLong = true;
+            }
+            c = reader.read();
+        }
+        if (c == '\r') {
+            reader.mark(1);
+            if (reader.read() != '\n') {
+                reader.reset();
+            }
+        }
+        if (tooLong) {
+            throw new LineTooLongException("Line exceeds " + maxLineLength + " characters");
+        }
+        return line.toString();
+    }
+
+    // The over-long line has been consumed; reading can continue with the next one
+    static class LineTooLongException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        LineTooLongException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.nus.sellr.product.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.nus.sellr.product.dto.ProductImportError;
+import com.nus.sellr.product.dto.ProductImportResult;
+import com.nus.sellr.product.dto.ProductRequest;
+import com.nus.sellr.product.entity.Product;
+import com.nus.sellr.product.mapper.ProductMapper;
+import com.nus.sellr.product.service.ProductService;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk product import from a CSV or NDJSON stream. Rows are parsed and validated
+ * one at a time and inserted in batches of batchSize with one unordered bulk write,
+ * so memory stays bounded by the batch (and the capped error list), not the upload.
+ * A bad row is reported and skipped; it never fails the rest of the import. If the
+ * upload itself cannot be read any further (a broken CSV record, a dropped connection),
+ * the rows read so far are written and the result says at which row it stopped.
+ */
+@Service
+public class ProductImporter {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    // longest CSV record or NDJSON line read into memory
+    private static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductMapper productMapper;
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public ProductImporter(MongoTemplate mongoTemplate,
+                           ProductMapper productMapper,
+                           ProductService productService,
+                           ObjectMapper objectMapper,
+                           @Value("${sellr.product-import.batch-size:500}") int batchSize,
+                           @Value("${sellr.product-import.max-errors:1000}") int maxErrors) {
+        this.mongoTemplate = mongoTemplate;
+        this.productMapper = productMapper;
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxErrors = Math.max(0, maxErrors);
+    }
+
+    // One JSON product object per line; blank lines are skipped
+    public ProductImportResult importNdjson(InputStream in, String sellerId) {
+        Batch batch = new Batch();
+        long row = 0;
+        try (BufferedReader reader = open(in)) {
+            NdjsonLineReader lines = new NdjsonLineReader(reader, MAX_RECORD_LENGTH);
+            while (true) {
+                String line;
+                try {
+                    line = lines.next();
+                } catch (NdjsonLineReader.LineTooLongException e) {
+                    batch.reject(++row, e.getMessage());
+                    continue;
+                }
+                if (line == null) {
+                    break;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                row++;
+                ProductRequest request;
+                try {
+                    request = objectMapper.readValue(line, ProductRequest.class);
+                } catch (JsonProcessingException e) {
+                    batch.reject(row, "Invalid JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                batch.accept(row, request, sellerId);
+            }
+        } catch (IOException e) {
+            return batch.abort(row + 1, e);
+        }
+        return batch.finish();
+    }
+
+    // Header row required (name, description, price, imageUrl, category, stock in any order; others ignored)
+    public ProductImportResult importCsv(InputStream in, String sellerId) {
+        Batch batch = new Batch();
+        long row = 0;
+        try (BufferedReader reader = open(in)) {
+            CsvRecordReader csv = new CsvRecordReader(reader, MAX_RECORD_LENGTH);
+            Map<String, Integer> columns = columns(csv.next());
+            try {
+                List<String> fields;
+                while ((fields = csv.next()) != null) {
+                    if (fields.size() == 1 && fields.get(0).isBlank()) {
+                        continue;
+                    }
+                    row++;
+                    try {
+                        batch.accept(row, toRequest(columns, fields), sellerId);
+                    } catch (NumberFormatException e) {
+                        batch.reject(row, "Invalid number: " + e.getMessage());
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // the reader cannot find where the broken record ends, so nothing after it can be trusted
+                return batch.abort(row + 1, e);
+            }
+        } catch (IOException e) {
+            return batch.abort(row + 1, e);
+        }
+        return batch.finish();
+    }
+
+    private static BufferedReader open(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, Integer> columns(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV upload is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("name")) {
+            throw new IllegalArgumentException("CSV header must include a name column");
+        }
+        return columns;
+    }
+
+    private static ProductRequest toRequest(Map<String, Integer> columns, List<String> fields) {
+        ProductRequest request = new ProductRequest();
+        request.setName(field(columns, fields, "name"));
+        request.setDescription(field(columns, fields, "description"));
+        request.setImageUrl(field(columns, fields, "imageurl"));
+        request.setCategory(field(columns, fields, "category"));
+        String price = field(columns, fields, "price");
+        if (price != null) {
+            request.setPrice(Double.parseDouble(price));
+        }
+        String stock = field(columns, fields, "stock");
+        if (stock != null) {
+            request.setStock(Integer.parseInt(stock));
+        }
+        return request;
+    }
+
+    private static String field(Map<String, Integer> columns, List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String validate(ProductRequest request) {
+        if (request == null) {
+            return "Row is empty";
+        }
+        if (request.getName() == null || request.getName().isBlank()) {
+            return "name is required";
+        }
+        if (!Double.isFinite(request.getPrice()) || request.getPrice() < 0) {
+            return "price must be zero or more";
+        }
+        if (request.getStock() < 0) {
+            return "stock must be zero or more";
+        }
+        return null;
+    }
+
+    // Pending rows of the current batch plus the running report
+    private class Batch {
+        private final List<Product> products = new ArrayList<>(batchSize);
+        private final List<Long> rows = new ArrayList<>(batchSize);
+        private final ProductImportResult result = new ProductImportResult();
+
+        void accept(long row, ProductRequest request, String sellerId) {
+            String problem = validate(request);
+            if (problem != null) {
+                reject(row, problem);
+                return;
+            }
+            request.setSellerId(sellerId);
+            Product product = productMapper.toProduct(request);
+            // assign the id up front so a bulk write error can be traced back to its row
+            product.setId(new ObjectId().toHexString());
+            product.setUpdatedAt(Instant.now());
+            products.add(product);
+            rows.add(row);
+            if (products.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < maxErrors) {
+                result.getErrors().add(new ProductImportError(row, message));
+            } else {
+                result.setErrorsTruncated(true);
+            }
+        }
+
+        // Stops at row: what was read before it is written, and the result records where and why
+        ProductImportResult abort(long row, Exception cause) {
+            result.setAbortedAtRow(row);
+            result.getErrors().add(new ProductImportError(row, "Import stopped: " + cause.getMessage()));
+            return finish();
+        }
+
+        ProductImportResult finish() {
+            flush();
+            System.out.println("Product import finished: " + result.getImported() + " imported, "
+                    + result.getFailed() + " failed");
+            return result;
+        }
+
+        private void flush() {
+            if (products.isEmpty()) {
+                return;
+            }
+            Set<Integer> failed = new HashSet<>();
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)
+                        .insert(products)
+                        .execute();
+            } catch (BulkOperationException e) {
+                // unordered: every other row in the batch was still written
+                for (BulkWriteError error : e.getErrors()) {
+                    failed.add(error.getIndex());
+                    reject(rows.get(error.getIndex()), error.getMessage());
+                }
+            }
+
+            List<Product> saved = new ArrayList<>(products.size() - failed.size());
+            for (int i = 0; i < products.size(); i++) {
+                if (!failed.contains(i)) {
+                    saved.add(products.get(i));
+                }
+            }
+            productService.onProductsImported(saved);
+            result.setImported(result.getImported() + saved.size());
+            products.clear();
+            rows.clear();
+        }
+    }
+}
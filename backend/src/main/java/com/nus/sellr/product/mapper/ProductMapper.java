@@ -2,6 +2,7 @@ package com.nus.sellr.product.mapper;
 
 import com.nus.sellr.product.dto.ProductRequest;
 import com.nus.sellr.product.dto.ProductResponse;
+import com.nus.sellr.product.dto.ProductSummary;
 import com.nus.sellr.product.entity.Product;
 import org.springframework.stereotype.Component;
 
@@ -11,6 +12,9 @@ import java.util.stream.Collectors;
 @Component
 public class ProductMapper {
 
+    // products with fewer units than this are flagged lowStock
+    public static final int LOW_STOCK_THRESHOLD = 20;
+
     public  ProductResponse toResponse(Product product) {
         if (product == null) { return null; }
         // map fields from entity -> DTO
@@ -23,7 +27,20 @@ public class ProductMapper {
         dto.setCategory(product.getCategory());
         dto.setStock(product.getStock());
         dto.setSellerId(product.getSellerId());
-        dto.setLowStock(product.getStock() < 20);
+        dto.setLowStock(product.getStock() < LOW_STOCK_THRESHOLD);
+        return dto;
+    }
+
+    public ProductSummary toSummary(Product product) {
+        if (product == null) { return null; }
+        ProductSummary dto = new ProductSummary();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setPrice(product.getPrice());
+        dto.setImageUrl(product.getImageUrl());
+        dto.setCategory(product.getCategory());
+        dto.setStock(product.getStock());
+        dto.setLowStock(product.getStock() < LOW_STOCK_THRESHOLD);
         return dto;
     }
 
@@ -4,13 +4,17 @@ import com.nus.sellr.product.entity.Product;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface ProductRepository extends MongoRepository<Product, String> {
 
     List<Product> findBySellerId(String sellerId);
 
-    @Query(value = "{}", fields = "{ 'category' : 1 }")
-    List<Product> findAllCategories();
+    List<Product> findByUpdatedAtGreaterThanEqual(Instant since);
+
+    // Every product id and nothing else, answered from the _id index
+    @Query(value = "{}", fields = "{ '_id': 1 }")
+    List<Product> findAllIds();
 
 }
@@ -0,0 +1,170 @@
+package com.nus.sellr.product.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typo-tolerant lookup over the indexed name vocabulary. Candidates are terms
+ * sharing enough padded trigrams with the query token, gathered from its rarest
+ * trigrams; only the best-overlapping maxCandidates are checked with a bounded edit
+ * distance (adjacent swaps count as one edit), so the cost per token stays bounded
+ * however large the catalog.
+ * Not thread-safe: ProductSearchIndex guards it with its own lock.
+ */
+final class FuzzyTermMatcher {
+
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+    private final int maxCandidates;
+    private final int maxSeedTerms;
+
+    FuzzyTermMatcher(int maxCandidates) {
+        this(maxCandidates, maxCandidates * 20);
+    }
+
+    FuzzyTermMatcher(int maxCandidates, int maxSeedTerms) {
+        this.maxCandidates = maxCandidates;
+        this.maxSeedTerms = maxSeedTerms;
+    }
+
+    void addTerm(String term) {
+        for (String gram : trigrams(term)) {
+            termsByTrigram.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+        }
+    }
+
+    void removeTerm(String term) {
+        for (String gram : trigrams(term)) {
+            Set<String> terms = termsByTrigram.get(gram);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    termsByTrigram.remove(gram);
+                }
+            }
+        }
+    }
+
+    void clear() {
+        termsByTrigram.clear();
+    }
+
+    // 0 edits up to 2 chars, 1 up to 5, 2 beyond
+    static int maxEdits(String token) {
+        if (token.length() <= 2) {
+            return 0;
+        }
+        return token.length() <= 5 ? 1 : 2;
+    }
+
+    // Indexed terms within maxEdits(token) of the token
+    List<String> matches(String token) {
+        int maxEdits = maxEdits(token);
+        List<String> matched = new ArrayList<>();
+        if (maxEdits == 0) {
+            return matched;
+        }
+
+        // an edit touches at most 4 of the token's trigrams (an adjacent swap spans two positions),
+        // so a match shares at least this many
+        Set<String> grams = new HashSet<>(trigrams(token));
+        int minShared = Math.max(1, grams.size() - 4 * maxEdits);
+
+        // Rarest grams first. A match shares minShared of the grams, so it appears in at least one
+        // of the first (grams - minShared + 1): only those seed candidates, the rest just add to
+        // the counts of terms already seen. Past the rarest, seed grams held by more than
+        // maxSeedTerms terms are skipped, so no single common gram walks the whole vocabulary.
+        List<Set<String>> postings = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            postings.add(termsByTrigram.getOrDefault(gram, Set.of()));
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        int seeds = grams.size() - minShared + 1;
+
+        Map<String, Integer> shared = new HashMap<>();
+        for (int i = 0; i < postings.size(); i++) {
+            Set<String> terms = postings.get(i);
+            if (i >= seeds) {
+                for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+                    if (terms.contains(entry.getKey())) {
+                        entry.setValue(entry.getValue() + 1);
+                    }
+                }
+                continue;
+            }
+            if (i > 0 && terms.size() > maxSeedTerms) {
+                continue;
+            }
+            for (String term : terms) {
+                if (Math.abs(term.length() - token.length()) <= maxEdits) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<Map.Entry<String, Integer>> candidates = new ArrayList<>();
+        for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+            if (candidate.getValue() >= minShared) {
+                candidates.add(candidate);
+            }
+        }
+        if (candidates.size() > maxCandidates) {
+            candidates.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+            candidates = candidates.subList(0, maxCandidates);
+        }
+        for (Map.Entry<String, Integer> candidate : candidates) {
+            if (withinDistance(token, candidate.getKey(), maxEdits)) {
+                matched.add(candidate.getKey());
+            }
+        }
+        return matched;
+    }
+
+    // Optimal string alignment distance <= max, giving up as soon as a whole row exceeds max
+    static boolean withinDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return false;
+        }
+        int[] prevPrev = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(prev[j] + 1, current[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, prevPrev[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] recycled = prevPrev;
+            prevPrev = prev;
+            prev = current;
+            current = recycled;
+        }
+        return prev[b.length()] <= max;
+    }
+
+    // "$$" + term + "$" cut into trigrams, so short terms and word starts still produce grams
+    static List<String> trigrams(String term) {
+        String padded = "$$" + term + "$";
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,108 @@
+package com.nus.sellr.product.search;
+
+import com.nus.sellr.product.entity.Product;
+import com.nus.sellr.product.mapper.ProductMapper;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-seller set of products below ProductMapper.LOW_STOCK_THRESHOLD, kept current
+ * from product writes. Only low-stock products are held, so a seller's low-stock
+ * list costs O(low-stock items) rather than a scan of their whole catalog.
+ */
+@Component
+public class LowStockIndex {
+
+    private static final Comparator<Product> BY_STOCK =
+            Comparator.comparingInt(Product::getStock).thenComparing(Product::getId);
+
+    private final MongoTemplate mongoTemplate;
+
+    // sellerId -> (productId -> snapshot), and productId -> sellerId for removals
+    private final Map<String, Map<String, Product>> bySeller = new HashMap<>();
+    private final Map<String, String> sellerById = new HashMap<>();
+    private volatile boolean ready;
+
+    public LowStockIndex(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Loads only the products that are currently low on stock
+    @PostConstruct
+    public void rebuild() {
+        Query query = new Query(Criteria.where("stock").lt(ProductMapper.LOW_STOCK_THRESHOLD));
+        try (CloseableIterator<Product> products = mongoTemplate.stream(query, Product.class)) {
+            synchronized (this) {
+                bySeller.clear();
+                sellerById.clear();
+                while (products.hasNext()) {
+                    onSaved(products.next());
+                }
+            }
+            ready = true;
+        } catch (RuntimeException e) {
+            ready = false;
+            System.out.println("Low-stock index unavailable, using Mongo query: " + e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public static boolean isLowStock(Product product) {
+        return product.getStock() < ProductMapper.LOW_STOCK_THRESHOLD;
+    }
+
+    // Seller's low-stock products, lowest stock first
+    public synchronized List<Product> getLowStock(String sellerId) {
+        Map<String, Product> products = bySeller.get(sellerId);
+        if (products == null) {
+            return Collections.emptyList();
+        }
+        List<Product> result = new ArrayList<>(products.values());
+        result.sort(BY_STOCK);
+        return result;
+    }
+
+    public synchronized int size() {
+        return sellerById.size();
+    }
+
+    public synchronized void onSaved(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        // the product may have changed seller as well as stock
+        onDeleted(product.getId());
+        if (product.getSellerId() == null || !isLowStock(product)) {
+            return;
+        }
+        bySeller.computeIfAbsent(product.getSellerId(), s -> new HashMap<>())
+                .put(product.getId(), new Product(product));
+        sellerById.put(product.getId(), product.getSellerId());
+    }
+
+    public synchronized void onDeleted(String productId) {
+        String sellerId = sellerById.remove(productId);
+        if (sellerId == null) {
+            return;
+        }
+        Map<String, Product> products = bySeller.get(sellerId);
+        products.remove(productId);
+        if (products.isEmpty()) {
+            bySeller.remove(sellerId);
+        }
+    }
+}
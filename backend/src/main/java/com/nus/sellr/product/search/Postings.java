@@ -0,0 +1,84 @@
+package com.nus.sellr.product.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Sorted ordinals of the products containing one term, with the term's count in
+ * each. Most terms are rare, so compact arrays cost a few bytes per posting where
+ * a BitSet per term would cost maxOrdinal / 8 bytes. Ordinals are handed out in
+ * increasing order during a rebuild, which makes the common add an append.
+ */
+final class Postings {
+
+    private int[] ordinals = new int[2];
+    private int[] frequencies = new int[2];
+    private int size;
+
+    Postings() {
+    }
+
+    // Takes ownership of the arrays; ordinals must be ascending (a snapshot's own copy)
+    Postings(int[] ordinals, int[] frequencies) {
+        this.ordinals = ordinals;
+        this.frequencies = frequencies;
+        this.size = ordinals.length;
+    }
+
+    void add(int ordinal, int frequency) {
+        boolean append = size == 0 || ordinals[size - 1] < ordinal;
+        int pos = append ? -size - 1 : Arrays.binarySearch(ordinals, 0, size, ordinal);
+        if (pos >= 0) {
+            frequencies[pos] = frequency;
+            return;
+        }
+        int insertAt = -pos - 1;
+        if (size == ordinals.length) {
+            int capacity = size + (size >> 1) + 1;
+            ordinals = Arrays.copyOf(ordinals, capacity);
+            frequencies = Arrays.copyOf(frequencies, capacity);
+        }
+        System.arraycopy(ordinals, insertAt, ordinals, insertAt + 1, size - insertAt);
+        System.arraycopy(frequencies, insertAt, frequencies, insertAt + 1, size - insertAt);
+        ordinals[insertAt] = ordinal;
+        frequencies[insertAt] = frequency;
+        size++;
+    }
+
+    void remove(int ordinal) {
+        int pos = Arrays.binarySearch(ordinals, 0, size, ordinal);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(ordinals, pos + 1, ordinals, pos, size - pos - 1);
+        System.arraycopy(frequencies, pos + 1, frequencies, pos, size - pos - 1);
+        size--;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Document frequency: how many products contain the term
+    int size() {
+        return size;
+    }
+
+    int ordinalAt(int index) {
+        return ordinals[index];
+    }
+
+    int frequencyAt(int index) {
+        return frequencies[index];
+    }
+
+    Postings copy() {
+        return new Postings(Arrays.copyOf(ordinals, size), Arrays.copyOf(frequencies, size));
+    }
+
+    void orInto(BitSet target) {
+        for (int i = 0; i < size; i++) {
+            target.set(ordinals[i]);
+        }
+    }
+}
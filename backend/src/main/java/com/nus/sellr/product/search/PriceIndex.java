@@ -0,0 +1,202 @@
+package com.nus.sellr.product.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Product prices in ascending order with the owning ordinal alongside, as two
+ * primitive arrays. A price range is two binary searches and a copy of the
+ * ordinals between them into a bitset; nothing is boxed. Entries are ordered by
+ * (price, ordinal) so a product's entry can be found exactly for removal.
+ * Not thread-safe: ProductSearchIndex guards it with its own lock.
+ */
+final class PriceIndex {
+
+    private double[] prices = new double[16];
+    private int[] ordinals = new int[16];
+    private int size;
+
+    void add(int ordinal, double price) {
+        int pos = find(price, ordinal);
+        if (pos >= 0) {
+            return;
+        }
+        int insertAt = -pos - 1;
+        if (size == prices.length) {
+            prices = Arrays.copyOf(prices, size * 2);
+            ordinals = Arrays.copyOf(ordinals, size * 2);
+        }
+        System.arraycopy(prices, insertAt, prices, insertAt + 1, size - insertAt);
+        System.arraycopy(ordinals, insertAt, ordinals, insertAt + 1, size - insertAt);
+        prices[insertAt] = price;
+        ordinals[insertAt] = ordinal;
+        size++;
+    }
+
+    void remove(int ordinal, double price) {
+        int pos = find(price, ordinal);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(prices, pos + 1, prices, pos, size - pos - 1);
+        System.arraycopy(ordinals, pos + 1, ordinals, pos, size - pos - 1);
+        size--;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    // Replaces the contents with arrays already in (price, ordinal) order, as written by copyPrices/copyOrdinals
+    void load(double[] sortedPrices, int[] sortedOrdinals) {
+        prices = Arrays.copyOf(sortedPrices, Math.max(16, sortedPrices.length));
+        ordinals = Arrays.copyOf(sortedOrdinals, Math.max(16, sortedOrdinals.length));
+        size = sortedPrices.length;
+    }
+
+    // Replaces the contents with the first count (price, ordinal) pairs, in any order: one in-place
+    // primitive sort of both arrays together, O(n log n) with nothing boxed
+    void build(double[] unsortedPrices, int[] unsortedOrdinals, int count) {
+        double[] sortedPrices = Arrays.copyOf(unsortedPrices, count);
+        int[] sortedOrdinals = Arrays.copyOf(unsortedOrdinals, count);
+        sortPairs(sortedPrices, sortedOrdinals, 0, count - 1);
+        load(sortedPrices, sortedOrdinals);
+    }
+
+    // Quicksort of [lo, hi] by (price, ordinal) with a median-of-three pivot, recursing into the
+    // smaller side so the stack stays O(log n); short ranges finish with an insertion sort
+    private static void sortPairs(double[] prices, int[] ordinals, int lo, int hi) {
+        while (hi - lo > 16) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(prices, ordinals, mid, lo) < 0) {
+                swap(prices, ordinals, mid, lo);
+            }
+            if (compare(prices, ordinals, hi, lo) < 0) {
+                swap(prices, ordinals, hi, lo);
+            }
+            if (compare(prices, ordinals, hi, mid) < 0) {
+                swap(prices, ordinals, hi, mid);
+            }
+            double pivotPrice = prices[mid];
+            int pivotOrdinal = ordinals[mid];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (compare(prices[i], ordinals[i], pivotPrice, pivotOrdinal) < 0) {
+                    i++;
+                }
+                while (compare(prices[j], ordinals[j], pivotPrice, pivotOrdinal) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(prices, ordinals, i++, j--);
+                }
+            }
+            if (j - lo < hi - i) {
+                sortPairs(prices, ordinals, lo, j);
+                lo = i;
+            } else {
+                sortPairs(prices, ordinals, i, hi);
+                hi = j;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            double price = prices[i];
+            int ordinal = ordinals[i];
+            int j = i - 1;
+            while (j >= lo && compare(prices[j], ordinals[j], price, ordinal) > 0) {
+                prices[j + 1] = prices[j];
+                ordinals[j + 1] = ordinals[j];
+                j--;
+            }
+            prices[j + 1] = price;
+            ordinals[j + 1] = ordinal;
+        }
+    }
+
+    private static int compare(double[] prices, int[] ordinals, int a, int b) {
+        return compare(prices[a], ordinals[a], prices[b], ordinals[b]);
+    }
+
+    private static int compare(double priceA, int ordinalA, double priceB, int ordinalB) {
+        int cmp = Double.compare(priceA, priceB);
+        return cmp != 0 ? cmp : Integer.compare(ordinalA, ordinalB);
+    }
+
+    private static void swap(double[] prices, int[] ordinals, int a, int b) {
+        double price = prices[a];
+        prices[a] = prices[b];
+        prices[b] = price;
+        int ordinal = ordinals[a];
+        ordinals[a] = ordinals[b];
+        ordinals[b] = ordinal;
+    }
+
+    double[] copyPrices() {
+        return Arrays.copyOf(prices, size);
+    }
+
+    int[] copyOrdinals() {
+        return Arrays.copyOf(ordinals, size);
+    }
+
+    // Sets the ordinal of every product priced within [min, max]
+    void rangeInto(double min, double max, BitSet target) {
+        int from = lowerBound(min);
+        int to = upperBound(max);
+        for (int i = from; i < to; i++) {
+            target.set(ordinals[i]);
+        }
+    }
+
+    // First index with price >= value
+    private int lowerBound(double value) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (prices[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // First index with price > value
+    private int upperBound(double value) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (prices[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Binary search on (price, ordinal); same contract as Arrays.binarySearch
+    private int find(double price, int ordinal) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = Double.compare(prices[mid], price);
+            if (cmp == 0) {
+                cmp = Integer.compare(ordinals[mid], ordinal);
+            }
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+}
@@ -0,0 +1,57 @@
+package com.nus.sellr.product.search;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+// Optional inclusive bounds on price; a null bound is open
+public final class PriceRange {
+
+    public static final PriceRange ANY = new PriceRange(null, null);
+
+    private final Double min;
+    private final Double max;
+
+    private PriceRange(Double min, Double max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    public static PriceRange of(Double min, Double max) {
+        if (min == null && max == null) {
+            return ANY;
+        }
+        if ((min != null && min.isNaN()) || (max != null && max.isNaN())) {
+            throw new IllegalArgumentException("Price bounds must be numbers");
+        }
+        if (min != null && max != null && min > max) {
+            throw new IllegalArgumentException("minPrice must not exceed maxPrice");
+        }
+        return new PriceRange(min, max);
+    }
+
+    public boolean isUnbounded() {
+        return min == null && max == null;
+    }
+
+    public double getMinOrDefault() {
+        return min == null ? Double.NEGATIVE_INFINITY : min;
+    }
+
+    public double getMaxOrDefault() {
+        return max == null ? Double.POSITIVE_INFINITY : max;
+    }
+
+    // Mongo equivalent ($gte / $lte on price), or null when unbounded
+    public Criteria toCriteria() {
+        if (isUnbounded()) {
+            return null;
+        }
+        Criteria criteria = Criteria.where("price");
+        if (min != null) {
+            criteria = criteria.gte(min);
+        }
+        if (max != null) {
+            criteria = criteria.lte(max);
+        }
+        return criteria;
+    }
+}
@@ -0,0 +1,128 @@
+package com.nus.sellr.product.search;
+
+import com.nus.sellr.product.dto.CategoryCount;
+import com.nus.sellr.product.dto.CategoryCountsResponse;
+import com.nus.sellr.product.entity.Product;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Category menu read model: product counts per category, kept current from product
+ * writes and served from an immutable snapshot, so reads cost O(categories).
+ */
+@Component
+public class ProductCategoryRegistry {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Map<String, String> categoryById = new HashMap<>();
+    private final TreeMap<String, Long> counts = new TreeMap<>();
+    private long version;
+    private volatile CategoryCountsResponse snapshot = new CategoryCountsResponse(0, Collections.emptyList());
+    private volatile boolean ready;
+
+    public ProductCategoryRegistry(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Loads only _id and category for each product
+    @PostConstruct
+    public void rebuild() {
+        Query query = new Query();
+        query.fields().include("category");
+        try (CloseableIterator<Product> products = mongoTemplate.stream(query, Product.class)) {
+            synchronized (this) {
+                categoryById.clear();
+                counts.clear();
+                while (products.hasNext()) {
+                    Product product = products.next();
+                    if (product.getCategory() != null) {
+                        categoryById.put(product.getId(), product.getCategory());
+                        counts.merge(product.getCategory(), 1L, Long::sum);
+                    }
+                }
+                publish();
+            }
+            ready = true;
+        } catch (RuntimeException e) {
+            ready = false;
+            System.out.println("Category registry unavailable, using Mongo distinct: " + e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<String> getCategories() {
+        List<CategoryCount> categories = snapshot.getCategories();
+        List<String> names = new ArrayList<>(categories.size());
+        for (CategoryCount category : categories) {
+            names.add(category.getName());
+        }
+        return names;
+    }
+
+    public CategoryCountsResponse getCounts() {
+        return snapshot;
+    }
+
+    public long getVersion() {
+        return snapshot.getVersion();
+    }
+
+    // Category the registry last saw for the product, or null when it has none
+    public synchronized String getCategoryOf(String productId) {
+        return categoryById.get(productId);
+    }
+
+    public synchronized void onSaved(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        String previous = categoryById.get(product.getId());
+        String current = product.getCategory();
+        if (Objects.equals(previous, current)) {
+            return;
+        }
+        decrement(previous);
+        if (current == null) {
+            categoryById.remove(product.getId());
+        } else {
+            categoryById.put(product.getId(), current);
+            counts.merge(current, 1L, Long::sum);
+        }
+        publish();
+    }
+
+    public synchronized void onDeleted(String productId) {
+        String previous = categoryById.remove(productId);
+        if (previous != null) {
+            decrement(previous);
+            publish();
+        }
+    }
+
+    private void decrement(String category) {
+        if (category != null) {
+            counts.computeIfPresent(category, (c, n) -> n > 1 ? n - 1 : null);
+        }
+    }
+
+    private void publish() {
+        List<CategoryCount> categories = new ArrayList<>(counts.size());
+        counts.forEach((name, count) -> categories.add(new CategoryCount(name, count)));
+        snapshot = new CategoryCountsResponse(++version, Collections.unmodifiableList(categories));
+    }
+}
@@ -0,0 +1,43 @@
+package com.nus.sellr.product.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Units sold per product, loaded at startup by the order module (ProductSalesLoader)
+ * and bumped on each checkout. Relevance search adds weight * ln(1 + unitsSold) to a
+ * product's text score.
+ */
+@Component
+public class ProductPopularity {
+
+    private final double weight;
+    private final Map<String, Long> unitsSold = new ConcurrentHashMap<>();
+
+    public ProductPopularity(@Value("${sellr.search.relevance.popularity-weight:1.0}") double weight) {
+        this.weight = weight;
+    }
+
+    // Replaces the counts with unitsSold per product id
+    public void load(Map<String, Long> loaded) {
+        unitsSold.clear();
+        unitsSold.putAll(loaded);
+    }
+
+    public void recordSale(String productId, int quantity) {
+        if (productId != null && quantity > 0) {
+            unitsSold.merge(productId, (long) quantity, Long::sum);
+        }
+    }
+
+    public long getUnitsSold(String productId) {
+        return unitsSold.getOrDefault(productId, 0L);
+    }
+
+    public double boost(String productId) {
+        return weight * Math.log1p(getUnitsSold(productId));
+    }
+}
@@ -0,0 +1,142 @@
+package com.nus.sellr.product.search;
+
+import com.nus.sellr.product.entity.Product;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Opaque keyset cursor for product search: the sort property and direction, the
+ * last row's value for that property and its _id. Encoded as URL-safe base64.
+ */
+public final class ProductSearchCursor {
+
+    private static final Set<String> ID_ORDERED = Set.of("createdAt", "id", "_id");
+    private static final Set<String> SUPPORTED = Set.of("createdAt", "id", "_id", "name", "category", "price", "stock");
+
+    private final String property;
+    private final Sort.Direction direction;
+    private final String id;
+    private final Object value;
+
+    private ProductSearchCursor(String property, Sort.Direction direction, String id, Object value) {
+        this.property = property;
+        this.direction = direction;
+        this.id = id;
+        this.value = value;
+    }
+
+    public static boolean supports(String property) {
+        return SUPPORTED.contains(property);
+    }
+
+    public static ProductSearchCursor after(Product last, Sort.Order order) {
+        return new ProductSearchCursor(order.getProperty(), order.getDirection(), last.getId(),
+                valueOf(last, order.getProperty()));
+    }
+
+    public static ProductSearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 4);
+            if (parts.length != 4 || !supports(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String property = parts[0];
+            Object value = parts[3].startsWith("=") ? parseValue(property, parts[3].substring(1)) : null;
+            return new ProductSearchCursor(property, Sort.Direction.fromString(parts[1]), parts[2], value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = property + "\n" + direction + "\n" + id + "\n" + (value == null ? "-" : "=" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void checkMatches(Sort.Order order) {
+        if (!property.equals(order.getProperty()) || direction != order.getDirection()) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort order");
+        }
+    }
+
+    // A product carrying only the cursor's sort key, for positioning within comparator-ordered hits
+    public Product toProbe() {
+        Product probe = new Product();
+        probe.setId(id);
+        if (value != null) {
+            switch (property) {
+                case "name":
+                    probe.setName((String) value);
+                    break;
+                case "category":
+                    probe.setCategory((String) value);
+                    break;
+                case "price":
+                    probe.setPrice((Double) value);
+                    break;
+                case "stock":
+                    probe.setStock((Integer) value);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return probe;
+    }
+
+    // Rows strictly after the cursor in (property, _id) order; missing values sort first ascending
+    public Criteria toCriteria() {
+        boolean asc = direction.isAscending();
+        Object idValue = ObjectId.isValid(id) ? new ObjectId(id) : id;
+        Criteria idAfter = asc ? Criteria.where("id").gt(idValue) : Criteria.where("id").lt(idValue);
+        if (ID_ORDERED.contains(property)) {
+            return idAfter;
+        }
+
+        Criteria tie = new Criteria().andOperator(Criteria.where(property).is(value), idAfter);
+        if (value == null) {
+            return asc ? new Criteria().orOperator(tie, Criteria.where(property).ne(null)) : tie;
+        }
+        Criteria beyond = asc ? Criteria.where(property).gt(value) : Criteria.where(property).lt(value);
+        return asc
+                ? new Criteria().orOperator(beyond, tie)
+                : new Criteria().orOperator(beyond, tie, Criteria.where(property).is(null));
+    }
+
+    public static Sort keysetSort(Sort.Order order) {
+        Sort byId = Sort.by(order.getDirection(), "id");
+        return ID_ORDERED.contains(order.getProperty()) ? byId : Sort.by(order).and(byId);
+    }
+
+    private static Object valueOf(Product product, String property) {
+        switch (property) {
+            case "name":
+                return product.getName();
+            case "category":
+                return product.getCategory();
+            case "price":
+                return product.getPrice();
+            case "stock":
+                return product.getStock();
+            default:
+                return null;
+        }
+    }
+
+    private static Object parseValue(String property, String raw) {
+        switch (property) {
+            case "price":
+                return Double.valueOf(raw);
+            case "stock":
+                return Integer.valueOf(raw);
+            default:
+                return raw;
+        }
+    }
+}
@@ -0,0 +1,744 @@
+package com.nus.sellr.product.search;
+
+import com.nus.sellr.product.dto.SearchFacets;
+import com.nus.sellr.product.entity.Product;
+import com.nus.sellr.product.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-memory inverted index over product name, description and category.
+ * Each product gets an integer ordinal; term postings are sorted ordinal arrays
+ * and categories are bitsets, so a query is a handful of unions/intersections
+ * instead of a collection scan.
+ * Query tokens are matched as prefixes of indexed terms ("phon" finds "phone").
+ * In fuzzy mode a token also matches name terms within one or two typos ("iphnoe").
+ * Relevance order scores hits with BM25 per field (name weighted above description)
+ * plus a caller-supplied popularity boost, selecting the page with a bounded heap.
+ * Price ranges are two binary searches over a sorted price array (see PriceIndex).
+ * With a snapshot store configured, the index is saved to disk periodically and at
+ * shutdown; on boot it is loaded from there and only products changed since are
+ * read from Mongo (see SearchIndexSnapshot).
+ */
+@Component
+public class ProductSearchIndex {
+
+    public static final String RELEVANCE = "relevance";
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_BOOST = 2.0;
+    private static final double DESCRIPTION_BOOST = 1.0;
+
+    private final ProductRepository productRepository;
+    private final SearchIndexSnapshotStore snapshotStore;
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Product> docs = new ArrayList<>();
+    private final Map<String, Integer> ordinalsById = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private final NavigableMap<String, Postings> nameTerms = new TreeMap<>();
+    private final NavigableMap<String, Postings> descriptionTerms = new TreeMap<>();
+    private final Map<String, BitSet> categories = new HashMap<>();
+    private final PriceIndex prices = new PriceIndex();
+    private final FuzzyTermMatcher fuzzyNames;
+    // token counts per ordinal and their totals, for BM25 length normalization
+    private int[] nameLengths = new int[0];
+    private int[] descriptionLengths = new int[0];
+    private long totalNameLength;
+    private long totalDescriptionLength;
+    // bumped on every change, so an unchanged index is not written out again
+    private long modifications;
+    private long savedModifications = -1;
+    private ScheduledExecutorService snapshotWriter;
+
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              SearchIndexSnapshotStore snapshotStore,
+                              @Value("${sellr.search.engine:index}") String engine,
+                              @Value("${sellr.search.fuzzy.max-candidates:2000}") int fuzzyMaxCandidates) {
+        this.productRepository = productRepository;
+        this.snapshotStore = snapshotStore;
+        this.enabled = !"regex".equalsIgnoreCase(engine);
+        this.fuzzyNames = new FuzzyTermMatcher(fuzzyMaxCandidates);
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        if (restoreSnapshot()) {
+            ready = true;
+            startSnapshots();
+            return;
+        }
+        try {
+            List<Product> products = productRepository.findAll();
+            lock.writeLock().lock();
+            try {
+                clear();
+                for (Product product : products) {
+                    add(product, false);
+                }
+                // one sort for the whole catalog rather than a sorted insert per product
+                double[] priceValues = new double[docs.size()];
+                int[] priceOrdinals = new int[docs.size()];
+                int count = 0;
+                for (int ordinal = 0; ordinal < docs.size(); ordinal++) {
+                    if (docs.get(ordinal) != null) {
+                        priceValues[count] = docs.get(ordinal).getPrice();
+                        priceOrdinals[count++] = ordinal;
+                    }
+                }
+                prices.build(priceValues, priceOrdinals, count);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            System.out.println("Product search index built with " + products.size() + " products");
+            startSnapshots();
+        } catch (RuntimeException e) {
+            ready = false;
+            System.out.println("Product search index unavailable, using regex search: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (snapshotWriter != null) {
+            snapshotWriter.shutdownNow();
+            snapshotWriter = null;
+            writeSnapshot();
+        }
+    }
+
+    // Loads the saved snapshot, then brings it up to date: products written since it was taken (less the
+    // replay margin) are re-indexed, and one _id-only scan finds products inserted without a timestamp
+    // and those deleted since. Returns false when there is no usable snapshot.
+    private boolean restoreSnapshot() {
+        SearchIndexSnapshot snapshot = snapshotStore.load();
+        if (snapshot == null) {
+            return false;
+        }
+        try {
+            Instant since = Instant.ofEpochMilli(snapshot.takenAt).minus(snapshotStore.getReplayMargin());
+            List<Product> changed = productRepository.findByUpdatedAtGreaterThanEqual(since);
+            Set<String> liveIds = new HashSet<>();
+            for (Product product : productRepository.findAllIds()) {
+                liveIds.add(product.getId());
+            }
+
+            Set<String> missing;
+            int removed = 0;
+            lock.writeLock().lock();
+            try {
+                restore(snapshot);
+                for (Product product : changed) {
+                    add(product);
+                }
+                for (String id : new ArrayList<>(ordinalsById.keySet())) {
+                    if (!liveIds.contains(id)) {
+                        removeLocked(id);
+                        removed++;
+                    }
+                }
+                liveIds.removeAll(ordinalsById.keySet());
+                missing = liveIds;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!missing.isEmpty()) {
+                for (Product product : productRepository.findAllById(missing)) {
+                    index(product);
+                }
+            }
+            System.out.println("Product search index restored from snapshot with " + snapshot.liveCount()
+                    + " products; replayed " + changed.size() + " changed, " + missing.size() + " missing, "
+                    + removed + " deleted");
+            return true;
+        } catch (RuntimeException e) {
+            System.out.println("Search index snapshot could not be replayed, rebuilding: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private synchronized void startSnapshots() {
+        if (!snapshotStore.isEnabled() || snapshotWriter != null) {
+            return;
+        }
+        snapshotWriter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-index-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = snapshotStore.getInterval().toMillis();
+        snapshotWriter.scheduleWithFixedDelay(this::writeSnapshot, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Copies the structures under the read lock (array copies only) and writes the file outside it
+    public synchronized void writeSnapshot() {
+        if (!isReady() || !snapshotStore.isEnabled()) {
+            return;
+        }
+        SearchIndexSnapshot snapshot;
+        long version;
+        lock.readLock().lock();
+        try {
+            version = modifications;
+            if (version == savedModifications) {
+                return;
+            }
+            snapshot = snapshot();
+        } finally {
+            lock.readLock().unlock();
+        }
+        try {
+            if (snapshotStore.save(snapshot)) {
+                savedModifications = version;
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Search index snapshot failed: " + e.getMessage());
+        }
+    }
+
+    // Caller holds the read lock. Indexed products are never modified in place, so they are shared
+    private SearchIndexSnapshot snapshot() {
+        int ordinals = docs.size();
+        NavigableMap<String, Postings> names = new TreeMap<>();
+        nameTerms.forEach((term, postings) -> names.put(term, postings.copy()));
+        NavigableMap<String, Postings> descriptions = new TreeMap<>();
+        descriptionTerms.forEach((term, postings) -> descriptions.put(term, postings.copy()));
+        Map<String, BitSet> categoryBits = new HashMap<>();
+        categories.forEach((category, bits) -> categoryBits.put(category, (BitSet) bits.clone()));
+        return new SearchIndexSnapshot(System.currentTimeMillis(), new ArrayList<>(docs),
+                Arrays.copyOf(nameLengths, ordinals), Arrays.copyOf(descriptionLengths, ordinals),
+                names, descriptions, categoryBits, prices.copyPrices(), prices.copyOrdinals());
+    }
+
+    // Caller holds the write lock; replaces the whole index with the snapshot's contents
+    private void restore(SearchIndexSnapshot snapshot) {
+        clear();
+        docs.addAll(snapshot.docs);
+        for (int ordinal = 0; ordinal < docs.size(); ordinal++) {
+            Product product = docs.get(ordinal);
+            if (product == null) {
+                freeOrdinals.push(ordinal);
+            } else {
+                ordinalsById.put(product.getId(), ordinal);
+                live.set(ordinal);
+            }
+        }
+        nameLengths = snapshot.nameLengths;
+        descriptionLengths = snapshot.descriptionLengths;
+        for (int length : nameLengths) {
+            totalNameLength += length;
+        }
+        for (int length : descriptionLengths) {
+            totalDescriptionLength += length;
+        }
+        nameTerms.putAll(snapshot.nameTerms);
+        for (String term : nameTerms.keySet()) {
+            fuzzyNames.addTerm(term);
+        }
+        descriptionTerms.putAll(snapshot.descriptionTerms);
+        categories.putAll(snapshot.categories);
+        prices.load(snapshot.prices, snapshot.priceOrdinals);
+        modifications++;
+    }
+
+    // False when disabled by config or the initial build failed; callers fall back to Mongo regex
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public boolean supports(Sort sort) {
+        return comparator(sort) != null;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String productId) {
+        if (productId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void removeLocked(String productId) {
+        Integer ordinal = ordinalsById.remove(productId);
+        if (ordinal != null) {
+            unindex(ordinal);
+            docs.set(ordinal, null);
+            freeOrdinals.push(ordinal);
+            modifications++;
+        }
+    }
+
+    public Page<Product> search(String q, String category, Pageable pageable) {
+        return search(q, category, pageable, false);
+    }
+
+    public Page<Product> search(String q, String category, Pageable pageable, boolean fuzzy) {
+        return search(q, category, PriceRange.ANY, pageable, fuzzy);
+    }
+
+    public Page<Product> search(String q, String category, PriceRange range, Pageable pageable, boolean fuzzy) {
+        Comparator<Product> order = comparator(pageable.getSort());
+        if (order == null) {
+            throw new IllegalArgumentException("Unsupported sort for indexed search: " + pageable.getSort());
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Product> matched = sortedHits(match(q, category, range, fuzzy), order);
+            int from = (int) Math.min(pageable.getOffset(), matched.size());
+            int to = Math.min(from + pageable.getPageSize(), matched.size());
+            List<Product> content = new ArrayList<>(to - from);
+            for (Product product : matched.subList(from, to)) {
+                content.add(new Product(product));
+            }
+            return new PageImpl<>(content, pageable, matched.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Up to limit hits strictly after the cursor (or from the start), in sort order
+    public List<Product> searchAfter(String q, String category, Sort sort, ProductSearchCursor cursor, int limit) {
+        Comparator<Product> order = comparator(sort);
+        if (order == null) {
+            throw new IllegalArgumentException("Unsupported sort for indexed search: " + sort);
+        }
+
+        Product probe = cursor == null ? null : cursor.toProbe();
+        lock.readLock().lock();
+        try {
+            // max-heap of the first limit hits after the cursor: O(n log limit), nothing before the cursor kept
+            BitSet hits = match(q, category, PriceRange.ANY, false);
+            PriorityQueue<Product> first = new PriorityQueue<>(Math.max(1, limit), order.reversed());
+            for (int i = hits.nextSetBit(0); i >= 0 && limit > 0; i = hits.nextSetBit(i + 1)) {
+                Product doc = docs.get(i);
+                if (probe != null && order.compare(doc, probe) <= 0) {
+                    continue;
+                }
+                if (first.size() < limit) {
+                    first.add(doc);
+                } else if (order.compare(doc, first.peek()) < 0) {
+                    first.poll();
+                    first.add(doc);
+                }
+            }
+
+            List<Product> content = new ArrayList<>(first.size());
+            for (Product doc : first) {
+                content.add(new Product(doc));
+            }
+            content.sort(order);
+            return content;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static boolean isRelevance(Sort sort) {
+        return sort.getOrderFor(RELEVANCE) != null;
+    }
+
+    // Hits ordered by text relevance plus popularity(id), best first; ties go to the lower id
+    public Page<Product> searchByRelevance(String q, String category, PriceRange range, Pageable pageable,
+                                           boolean fuzzy, ToDoubleFunction<String> popularity) {
+        lock.readLock().lock();
+        try {
+            BitSet hits = match(q, category, range, fuzzy);
+            Map<Integer, Double> scores = textScores(q, fuzzy, hits);
+            int total = hits.cardinality();
+            int from = (int) Math.min(pageable.getOffset(), total);
+            int k = Math.min(from + pageable.getPageSize(), total);
+
+            // min-heap of the k best so far: O(n log k) instead of sorting every hit
+            Comparator<Integer> byScore = Comparator.<Integer>comparingDouble(i -> scores.getOrDefault(i, 0.0))
+                    .thenComparing(i -> docs.get(i).getId(), Comparator.reverseOrder());
+            PriorityQueue<Integer> best = new PriorityQueue<>(Math.max(1, k), byScore);
+            for (int i = hits.nextSetBit(0); i >= 0 && k > 0; i = hits.nextSetBit(i + 1)) {
+                scores.merge(i, popularity.applyAsDouble(docs.get(i).getId()), Double::sum);
+                if (best.size() < k) {
+                    best.add(i);
+                } else if (byScore.compare(i, best.peek()) > 0) {
+                    best.poll();
+                    best.add(i);
+                }
+            }
+
+            List<Integer> ranked = new ArrayList<>(best);
+            ranked.sort(byScore.reversed());
+            List<Product> content = new ArrayList<>(k - from);
+            for (int ordinal : ranked.subList(from, k)) {
+                content.add(new Product(docs.get(ordinal)));
+            }
+            return new PageImpl<>(content, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long count(String q, String category) {
+        lock.readLock().lock();
+        try {
+            return match(q, category, PriceRange.ANY, false).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Category counts for q across all categories and price buckets for q within category, in one pass
+    public SearchFacets facets(String q, String category, double[] priceBounds) {
+        return facets(q, category, priceBounds, false);
+    }
+
+    public SearchFacets facets(String q, String category, double[] priceBounds, boolean fuzzy) {
+        boolean anyCategory = category == null || category.isBlank();
+        Map<String, Long> categoryCounts = new HashMap<>();
+        long[] bucketCounts = new long[priceBounds.length];
+
+        lock.readLock().lock();
+        try {
+            BitSet hits = match(q, null, PriceRange.ANY, fuzzy);
+            for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+                Product product = docs.get(i);
+                if (product.getCategory() != null) {
+                    categoryCounts.merge(product.getCategory(), 1L, Long::sum);
+                }
+                if (anyCategory || category.equals(product.getCategory())) {
+                    bucketCounts[SearchFacetCache.bucketOf(priceBounds, product.getPrice())]++;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return SearchFacetCache.toFacets(categoryCounts, priceBounds, bucketCounts);
+    }
+
+    // Caller holds the read lock. BM25 over name and description for every query token's prefix
+    // (and, when fuzzy, typo) expansions; only ordinals in hits are scored, keyed by ordinal so the
+    // allocation follows the result size rather than the catalog.
+    private Map<Integer, Double> textScores(String q, boolean fuzzy, BitSet hits) {
+        Map<Integer, Double> scores = new HashMap<>(hits.cardinality() * 2);
+        int liveCount = ordinalsById.size();
+        if (liveCount == 0 || hits.isEmpty()) {
+            return scores;
+        }
+        double avgName = Math.max(1.0, (double) totalNameLength / liveCount);
+        double avgDescription = Math.max(1.0, (double) totalDescriptionLength / liveCount);
+
+        for (String token : ProductTokenizer.distinctTokens(q)) {
+            Set<String> names = new HashSet<>(withPrefix(nameTerms, token).keySet());
+            if (fuzzy) {
+                names.addAll(fuzzyNames.matches(token));
+            }
+            for (String term : names) {
+                addBm25(scores, hits, nameTerms.get(term), nameLengths, avgName, liveCount, NAME_BOOST);
+            }
+            for (Postings postings : withPrefix(descriptionTerms, token).values()) {
+                addBm25(scores, hits, postings, descriptionLengths, avgDescription, liveCount, DESCRIPTION_BOOST);
+            }
+        }
+        return scores;
+    }
+
+    private static void addBm25(Map<Integer, Double> scores, BitSet hits, Postings postings, int[] lengths,
+                                double avgLength, int liveCount, double boost) {
+        int df = postings.size();
+        double idf = Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+        for (int i = 0; i < df; i++) {
+            int ordinal = postings.ordinalAt(i);
+            if (!hits.get(ordinal)) {
+                continue;
+            }
+            int tf = postings.frequencyAt(i);
+            double norm = K1 * (1 - B + B * lengths[ordinal] / avgLength);
+            scores.merge(ordinal, boost * idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+        }
+    }
+
+    // Caller holds the read lock
+    private List<Product> sortedHits(BitSet hits, Comparator<Product> order) {
+        List<Product> matched = new ArrayList<>(hits.cardinality());
+        for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+            matched.add(docs.get(i));
+        }
+        matched.sort(order);
+        return matched;
+    }
+
+    // Caller holds the read lock
+    private BitSet match(String q, String category, PriceRange range, boolean fuzzy) {
+        BitSet result = (BitSet) live.clone();
+        if (!range.isUnbounded()) {
+            BitSet inRange = new BitSet(docs.size());
+            prices.rangeInto(range.getMinOrDefault(), range.getMaxOrDefault(), inRange);
+            result.and(inRange);
+        }
+
+        for (String token : ProductTokenizer.distinctTokens(q)) {
+            BitSet tokenHits = prefixUnion(nameTerms, token);
+            tokenHits.or(prefixUnion(descriptionTerms, token));
+            if (fuzzy) {
+                for (String term : fuzzyNames.matches(token)) {
+                    nameTerms.get(term).orInto(tokenHits);
+                }
+            }
+            result.and(tokenHits);
+            if (result.isEmpty()) {
+                return result;
+            }
+        }
+
+        if (category != null && !category.isBlank()) {
+            BitSet inCategory = categories.get(category);
+            if (inCategory == null) {
+                result.clear();
+            } else {
+                result.and(inCategory);
+            }
+        }
+        return result;
+    }
+
+    private static BitSet prefixUnion(NavigableMap<String, Postings> terms, String prefix) {
+        BitSet union = new BitSet();
+        for (Postings postings : withPrefix(terms, prefix).values()) {
+            postings.orInto(union);
+        }
+        return union;
+    }
+
+    private static NavigableMap<String, Postings> withPrefix(NavigableMap<String, Postings> terms, String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+    }
+
+    // Caller holds the write lock
+    private void add(Product product) {
+        add(product, true);
+    }
+
+    // indexPrice is false only during a full rebuild, which sorts every price at once afterwards
+    private void add(Product product, boolean indexPrice) {
+        Integer ordinal = ordinalsById.get(product.getId());
+        if (ordinal != null) {
+            unindex(ordinal);
+        } else if (!freeOrdinals.isEmpty()) {
+            ordinal = freeOrdinals.pop();
+        } else {
+            ordinal = docs.size();
+            docs.add(null);
+        }
+
+        Product copy = new Product(product);
+        docs.set(ordinal, copy);
+        modifications++;
+        ordinalsById.put(copy.getId(), ordinal);
+        live.set(ordinal);
+        if (indexPrice) {
+            prices.add(ordinal, copy.getPrice());
+        }
+
+        ensureLengthCapacity(ordinal);
+        List<String> nameTokens = ProductTokenizer.tokenize(copy.getName());
+        List<String> descriptionTokens = ProductTokenizer.tokenize(copy.getDescription());
+        nameLengths[ordinal] = nameTokens.size();
+        descriptionLengths[ordinal] = descriptionTokens.size();
+        totalNameLength += nameTokens.size();
+        totalDescriptionLength += descriptionTokens.size();
+
+        for (Map.Entry<String, Integer> term : termCounts(nameTokens).entrySet()) {
+            Postings postings = nameTerms.get(term.getKey());
+            if (postings == null) {
+                postings = new Postings();
+                nameTerms.put(term.getKey(), postings);
+                fuzzyNames.addTerm(term.getKey());
+            }
+            postings.add(ordinal, term.getValue());
+        }
+        for (Map.Entry<String, Integer> term : termCounts(descriptionTokens).entrySet()) {
+            descriptionTerms.computeIfAbsent(term.getKey(), t -> new Postings()).add(ordinal, term.getValue());
+        }
+        if (copy.getCategory() != null) {
+            categories.computeIfAbsent(copy.getCategory(), c -> new BitSet()).set(ordinal);
+        }
+    }
+
+    private static Map<String, Integer> termCounts(List<String> tokens) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String token : tokens) {
+            counts.merge(token, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private void ensureLengthCapacity(int ordinal) {
+        if (ordinal >= nameLengths.length) {
+            int capacity = Math.max(ordinal + 1, nameLengths.length * 2);
+            nameLengths = Arrays.copyOf(nameLengths, capacity);
+            descriptionLengths = Arrays.copyOf(descriptionLengths, capacity);
+        }
+    }
+
+    // Caller holds the write lock; clears every posting that references the ordinal
+    private void unindex(int ordinal) {
+        Product old = docs.get(ordinal);
+        live.clear(ordinal);
+        if (old == null) {
+            return;
+        }
+        prices.remove(ordinal, old.getPrice());
+        totalNameLength -= nameLengths[ordinal];
+        totalDescriptionLength -= descriptionLengths[ordinal];
+        nameLengths[ordinal] = 0;
+        descriptionLengths[ordinal] = 0;
+        for (String term : ProductTokenizer.distinctTokens(old.getName())) {
+            if (clearPosting(nameTerms, term, ordinal)) {
+                fuzzyNames.removeTerm(term);
+            }
+        }
+        for (String term : ProductTokenizer.distinctTokens(old.getDescription())) {
+            clearPosting(descriptionTerms, term, ordinal);
+        }
+        if (old.getCategory() != null) {
+            BitSet bits = categories.get(old.getCategory());
+            if (bits != null) {
+                bits.clear(ordinal);
+                if (bits.isEmpty()) {
+                    categories.remove(old.getCategory());
+                }
+            }
+        }
+    }
+
+    // Returns true when the term lost its last posting and was dropped
+    private static boolean clearPosting(Map<String, Postings> terms, String term, int ordinal) {
+        Postings postings = terms.get(term);
+        if (postings == null) {
+            return false;
+        }
+        postings.remove(ordinal);
+        if (postings.isEmpty()) {
+            terms.remove(term);
+            return true;
+        }
+        return false;
+    }
+
+    private void clear() {
+        docs.clear();
+        ordinalsById.clear();
+        freeOrdinals.clear();
+        live.clear();
+        nameTerms.clear();
+        fuzzyNames.clear();
+        descriptionTerms.clear();
+        categories.clear();
+        prices.clear();
+        nameLengths = new int[0];
+        descriptionLengths = new int[0];
+        totalNameLength = 0;
+        totalDescriptionLength = 0;
+    }
+
+    // Comparator matching Mongo's ordering for the sort, with _id as the final tie-breaker.
+    // Products carry no createdAt field, so createdAt is served by _id (ObjectIds are time-ordered).
+    static Comparator<Product> comparator(Sort sort) {
+        Comparator<Product> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<Product> next = fieldComparator(order.getProperty());
+            if (next == null) {
+                return null;
+            }
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            result = result == null ? next : result.thenComparing(next);
+        }
+        Comparator<Product> byId = fieldComparator("id");
+        return result == null ? byId : result.thenComparing(byId);
+    }
+
+    private static Comparator<Product> fieldComparator(String property) {
+        switch (property) {
+            case "createdAt":
+            case "id":
+            case "_id":
+                return nullsFirst(Product::getId);
+            case "name":
+                return nullsFirst(Product::getName);
+            case "category":
+                return nullsFirst(Product::getCategory);
+            case "price":
+                return Comparator.comparingDouble(Product::getPrice);
+            case "stock":
+                return Comparator.comparingInt(Product::getStock);
+            default:
+                return null;
+        }
+    }
+
+    private static Comparator<Product> nullsFirst(Function<Product, String> key) {
+        return Comparator.comparing(key, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+}
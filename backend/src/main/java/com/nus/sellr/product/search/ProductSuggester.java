@@ -0,0 +1,285 @@
+package com.nus.sellr.product.search;
+
+import com.nus.sellr.product.dto.ProductSuggestion;
+import com.nus.sellr.product.entity.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocomplete over product names and categories. Every word suffix of a name
+ * ("apple iphone 13", "iphone 13", "13") is a trie key, so a prefix of any word
+ * finds the product. Each node caches its best maxResults entries; a write only
+ * drops the caches on the paths it touches, so repeated prefixes are a trie walk
+ * plus a list copy.
+ */
+@Component
+public class ProductSuggester {
+
+    static final String PRODUCT = "product";
+    static final String CATEGORY = "category";
+
+    // Higher score first, then alphabetical, so results are stable between calls
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong((Entry e) -> e.score).reversed()
+            .thenComparing(e -> e.text)
+            .thenComparing(e -> e.type)
+            .thenComparing(e -> e.productId == null ? "" : e.productId);
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxResults;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<String, Entry> productEntries = new HashMap<>();
+    private final Map<String, Entry> categoryEntries = new HashMap<>();
+    private final Map<String, Long> categoryCounts = new HashMap<>();
+    private volatile boolean ready;
+
+    public ProductSuggester(MongoTemplate mongoTemplate,
+                            @Value("${sellr.suggest.max-results:10}") int maxResults) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxResults = maxResults;
+    }
+
+    // Loads only _id, name, category and stock for each product
+    @PostConstruct
+    public void rebuild() {
+        Query query = new Query();
+        query.fields().include("name").include("category").include("stock");
+        try (CloseableIterator<Product> products = mongoTemplate.stream(query, Product.class)) {
+            lock.writeLock().lock();
+            try {
+                root.children.clear();
+                root.entries.clear();
+                root.top = null;
+                productEntries.clear();
+                categoryEntries.clear();
+                categoryCounts.clear();
+                while (products.hasNext()) {
+                    add(products.next());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            System.out.println("Product suggester built with " + productEntries.size() + " products");
+        } catch (RuntimeException e) {
+            ready = false;
+            System.out.println("Product suggester unavailable: " + e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        String key = String.join(" ", ProductTokenizer.tokenize(prefix));
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return Collections.emptyList();
+            }
+            List<Entry> top = top(node);
+            List<ProductSuggestion> result = new ArrayList<>(Math.min(limit, top.size()));
+            for (Entry entry : top.subList(0, Math.min(limit, top.size()))) {
+                result.add(new ProductSuggestion(entry.text, entry.type, entry.productId));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String productId) {
+        if (productId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeProduct(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void add(Product product) {
+        removeProduct(product.getId());
+        if (product.getName() != null && !product.getName().isBlank()) {
+            Entry entry = new Entry(product.getName().trim(), PRODUCT, product.getId(), product.getStock(),
+                    product.getCategory());
+            productEntries.put(product.getId(), entry);
+            insert(entry);
+        } else if (product.getCategory() != null) {
+            // nameless products still count towards their category
+            productEntries.put(product.getId(), new Entry(null, PRODUCT, product.getId(), 0, product.getCategory()));
+        }
+        if (product.getCategory() != null) {
+            adjustCategory(product.getCategory(), 1);
+        }
+    }
+
+    // Caller holds the write lock
+    private void removeProduct(String productId) {
+        Entry old = productEntries.remove(productId);
+        if (old == null) {
+            return;
+        }
+        if (old.text != null) {
+            delete(old);
+        }
+        if (old.category != null) {
+            adjustCategory(old.category, -1);
+        }
+    }
+
+    // Categories rank by how many products they hold
+    private void adjustCategory(String category, long delta) {
+        Entry old = categoryEntries.remove(category);
+        if (old != null) {
+            delete(old);
+        }
+        long count = categoryCounts.merge(category, delta, Long::sum);
+        if (count <= 0) {
+            categoryCounts.remove(category);
+            return;
+        }
+        Entry entry = new Entry(category, CATEGORY, null, count, null);
+        categoryEntries.put(category, entry);
+        insert(entry);
+    }
+
+    private void insert(Entry entry) {
+        for (String key : keys(entry.text)) {
+            Node node = root;
+            node.top = null;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+                node.top = null;
+            }
+            node.entries.add(entry);
+        }
+    }
+
+    private void delete(Entry entry) {
+        for (String key : keys(entry.text)) {
+            List<Node> path = new ArrayList<>(key.length() + 1);
+            Node node = root;
+            path.add(node);
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+                path.add(node);
+            }
+            if (node == null) {
+                continue;
+            }
+            node.entries.remove(entry);
+            // drop cached lists on the path and prune branches left empty
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node current = path.get(i);
+                current.top = null;
+                if (i > 0 && current.entries.isEmpty() && current.children.isEmpty()) {
+                    path.get(i - 1).children.remove(key.charAt(i - 1));
+                }
+            }
+        }
+    }
+
+    // Caller holds the read or write lock. Concurrent readers may both fill the same cache; they compute
+    // the same list, and writers are excluded by the lock.
+    private List<Entry> top(Node node) {
+        List<Entry> cached = node.top;
+        if (cached != null) {
+            return cached;
+        }
+        Set<Entry> candidates = new LinkedHashSet<>();
+        for (Entry entry : node.entries) {
+            if (candidates.size() == maxResults) {
+                break;
+            }
+            candidates.add(entry);
+        }
+        for (Node child : node.children.values()) {
+            candidates.addAll(top(child));
+        }
+        List<Entry> ranked = new ArrayList<>(candidates);
+        ranked.sort(RANKING);
+        List<Entry> top = Collections.unmodifiableList(
+                new ArrayList<>(ranked.subList(0, Math.min(maxResults, ranked.size()))));
+        node.top = top;
+        return top;
+    }
+
+    // Word suffixes of the text, lower-cased and single-spaced
+    private static Set<String> keys(String text) {
+        List<String> tokens = ProductTokenizer.tokenize(text);
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            keys.add(String.join(" ", tokens.subList(i, tokens.size())));
+        }
+        return keys;
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        // ranked, so a node holding thousands of keys (e.g. "widget") yields its best few without a sort
+        private final NavigableSet<Entry> entries = new TreeSet<>(RANKING);
+        private volatile List<Entry> top;
+    }
+
+    private static final class Entry {
+        private final String text;
+        private final String type;
+        private final String productId;
+        private final long score;
+        private final String category;
+
+        private Entry(String text, String type, String productId, long score, String category) {
+            this.text = text;
+            this.type = type;
+            this.productId = productId;
+            this.score = score;
+            this.category = category;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.nus.sellr.product.search;
+
+import lombok.Getter;
+
+// A search total; when not exact, value is a lower bound (the count cap)
+@Getter
+public class SearchCount {
+    private final long value;
+    private final boolean exact;
+
+    public SearchCount(long value, boolean exact) {
+        this.value = value;
+        this.exact = exact;
+    }
+}
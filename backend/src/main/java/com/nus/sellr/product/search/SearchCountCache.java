@@ -0,0 +1,60 @@
+package com.nus.sellr.product.search;
+
+import com.nus.sellr.common.cache.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Search totals keyed by normalized (q, category). Entries are dropped when a
+ * product in the same category changes; the TTL bounds staleness from writes
+ * made by other instances.
+ */
+@Component
+public class SearchCountCache {
+
+    private final LruCache<SearchKey, SearchCount> counts;
+    private final long countCap;
+    // bumped by every invalidation, so a put can tell whether one happened while its count ran
+    private long generation;
+
+    public SearchCountCache(@Value("${sellr.search.count-cache.size:1000}") int size,
+                            @Value("${sellr.search.count-cache.ttl-seconds:60}") long ttlSeconds,
+                            @Value("${sellr.search.count-cap:10000}") long countCap) {
+        this.counts = new LruCache<>(size, Duration.ofSeconds(ttlSeconds));
+        this.countCap = countCap;
+    }
+
+    public long getCountCap() {
+        return countCap;
+    }
+
+    public SearchCount get(String q, String category) {
+        return counts.get(new SearchKey(q, category));
+    }
+
+    // Read before running the count and pass to put
+    public synchronized long generation() {
+        return generation;
+    }
+
+    // Skipped if anything was invalidated since startGeneration, so a count taken before a write is not kept
+    public synchronized void put(String q, String category, SearchCount count, long startGeneration) {
+        if (startGeneration == generation) {
+            counts.put(new SearchKey(q, category), count);
+        }
+    }
+
+    // A change in one category can only move totals for that category and for "all categories"
+    public synchronized void invalidateCategory(String category) {
+        String normalized = SearchKey.normalizeCategory(category);
+        generation++;
+        counts.invalidateIf(key -> key.getCategory().isEmpty() || key.getCategory().equals(normalized));
+    }
+
+    public synchronized void clear() {
+        generation++;
+        counts.clear();
+    }
+}
@@ -0,0 +1,7 @@
+package com.nus.sellr.product.search;
+
+public enum SearchCountMode {
+    NONE,       // no total
+    EXACT,      // full count
+    ESTIMATE    // count up to the configured cap, then report "cap+"
+}
@@ -0,0 +1,76 @@
+package com.nus.sellr.product.search;
+
+import com.nus.sellr.common.cache.LruCache;
+import com.nus.sellr.product.dto.CategoryCount;
+import com.nus.sellr.product.dto.PriceBucket;
+import com.nus.sellr.product.dto.SearchFacets;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facets keyed by normalized (q, category), plus the configured price bucket boundaries.
+ * Category counts span every category, so any product write clears the whole cache.
+ */
+@Component
+public class SearchFacetCache {
+
+    private final LruCache<SearchKey, SearchFacets> facets;
+    private final double[] priceBounds;
+
+    public SearchFacetCache(@Value("${sellr.search.facets.cache.size:500}") int size,
+                            @Value("${sellr.search.facets.cache.ttl-seconds:60}") long ttlSeconds,
+                            @Value("${sellr.search.facets.price-buckets:0,25,50,100,250,500}") double[] priceBounds) {
+        if (priceBounds.length == 0) {
+            throw new IllegalArgumentException("sellr.search.facets.price-buckets needs at least one boundary");
+        }
+        this.facets = new LruCache<>(size, Duration.ofSeconds(ttlSeconds));
+        this.priceBounds = priceBounds.clone();
+        Arrays.sort(this.priceBounds);
+    }
+
+    // Ascending boundaries: bucket i is [bounds[i], bounds[i + 1]) and the last is [bounds[n - 1], +inf)
+    public double[] getPriceBounds() {
+        return priceBounds.clone();
+    }
+
+    public SearchFacets get(String q, String category) {
+        return facets.get(new SearchKey(q, category));
+    }
+
+    public void put(String q, String category, SearchFacets value) {
+        facets.put(new SearchKey(q, category), value);
+    }
+
+    public void clear() {
+        facets.clear();
+    }
+
+    // Index of the bucket holding price; prices below the first boundary share the top bucket, as in Mongo's
+    // $bucket default bucket
+    public static int bucketOf(double[] bounds, double price) {
+        int pos = Arrays.binarySearch(bounds, price);
+        int bucket = pos >= 0 ? pos : -pos - 2;
+        return bucket < 0 ? bounds.length - 1 : bucket;
+    }
+
+    public static SearchFacets toFacets(Map<String, Long> categoryCounts, double[] bounds, long[] bucketCounts) {
+        List<CategoryCount> categories = new ArrayList<>(categoryCounts.size());
+        categoryCounts.forEach((name, count) -> categories.add(new CategoryCount(name, count)));
+        categories.sort(Comparator.comparingLong(CategoryCount::getCount).reversed()
+                .thenComparing(CategoryCount::getName));
+
+        List<PriceBucket> buckets = new ArrayList<>(bounds.length);
+        for (int i = 0; i < bounds.length; i++) {
+            Double to = i + 1 < bounds.length ? bounds[i + 1] : null;
+            buckets.add(new PriceBucket(bounds[i], to, bucketCounts[i]));
+        }
+        return new SearchFacets(categories, buckets);
+    }
+}
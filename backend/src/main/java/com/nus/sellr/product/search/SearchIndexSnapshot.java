@@ -0,0 +1,300 @@
+package com.nus.sellr.product.search;
+
+import com.nus.sellr.product.entity.Product;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Point-in-time copy of ProductSearchIndex's structures and its binary file format.
+ * Postings, length arrays, price arrays and category bitmaps are stored as flat
+ * primitive runs, so loading is a bulk copy out of a read-only MappedByteBuffer
+ * rather than re-tokenizing every product. Big-endian throughout; a trailing magic
+ * number catches files cut short by a crash during the write.
+ */
+final class SearchIndexSnapshot {
+
+    private static final int MAGIC = 0x53584958;
+    private static final int FORMAT_VERSION = 1;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    final long takenAt;
+    final List<Product> docs;           // by ordinal; null for a free ordinal
+    final int[] nameLengths;
+    final int[] descriptionLengths;
+    final NavigableMap<String, Postings> nameTerms;
+    final NavigableMap<String, Postings> descriptionTerms;
+    final Map<String, BitSet> categories;
+    final double[] prices;
+    final int[] priceOrdinals;
+
+    SearchIndexSnapshot(long takenAt, List<Product> docs, int[] nameLengths, int[] descriptionLengths,
+                        NavigableMap<String, Postings> nameTerms, NavigableMap<String, Postings> descriptionTerms,
+                        Map<String, BitSet> categories, double[] prices, int[] priceOrdinals) {
+        this.takenAt = takenAt;
+        this.docs = docs;
+        this.nameLengths = nameLengths;
+        this.descriptionLengths = descriptionLengths;
+        this.nameTerms = nameTerms;
+        this.descriptionTerms = descriptionTerms;
+        this.categories = categories;
+        this.prices = prices;
+        this.priceOrdinals = priceOrdinals;
+    }
+
+    int liveCount() {
+        int live = 0;
+        for (Product product : docs) {
+            if (product != null) {
+                live++;
+            }
+        }
+        return live;
+    }
+
+    void writeTo(OutputStream target) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target, 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(takenAt);
+
+        int ordinals = docs.size();
+        out.writeInt(ordinals);
+        for (Product product : docs) {
+            out.writeBoolean(product != null);
+            if (product != null) {
+                writeProduct(out, product);
+            }
+        }
+        for (int i = 0; i < ordinals; i++) {
+            out.writeInt(nameLengths[i]);
+        }
+        for (int i = 0; i < ordinals; i++) {
+            out.writeInt(descriptionLengths[i]);
+        }
+        writeTerms(out, nameTerms);
+        writeTerms(out, descriptionTerms);
+
+        out.writeInt(categories.size());
+        for (Map.Entry<String, BitSet> category : categories.entrySet()) {
+            writeString(out, category.getKey());
+            long[] words = category.getValue().toLongArray();
+            out.writeInt(words.length);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+
+        out.writeInt(prices.length);
+        for (double price : prices) {
+            out.writeDouble(price);
+        }
+        for (int ordinal : priceOrdinals) {
+            out.writeInt(ordinal);
+        }
+        out.writeInt(MAGIC);
+        out.flush();
+    }
+
+    // Maps the file read-only and copies each section out in bulk
+    static SearchIndexSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large to map: " + length + " bytes");
+            }
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            return read(in);
+        }
+    }
+
+    static SearchIndexSnapshot read(ByteBuffer in) throws IOException {
+        try {
+            if (in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a search index snapshot, or an older format");
+            }
+            long takenAt = in.getLong();
+
+            int ordinals = available(in, in.getInt(), 1);
+            List<Product> docs = new ArrayList<>(ordinals);
+            for (int i = 0; i < ordinals; i++) {
+                docs.add(in.get() != 0 ? readProduct(in) : null);
+            }
+            int[] nameLengths = readInts(in, ordinals);
+            int[] descriptionLengths = readInts(in, ordinals);
+            NavigableMap<String, Postings> nameTerms = readTerms(in, ordinals);
+            NavigableMap<String, Postings> descriptionTerms = readTerms(in, ordinals);
+
+            int categoryCount = nonNegative(in.getInt());
+            Map<String, BitSet> categories = new HashMap<>();
+            for (int i = 0; i < categoryCount; i++) {
+                String name = readString(in);
+                long[] words = new long[available(in, in.getInt(), Long.BYTES)];
+                in.asLongBuffer().get(words);
+                in.position(in.position() + words.length * Long.BYTES);
+                categories.put(name, BitSet.valueOf(words));
+            }
+
+            int priceCount = nonNegative(in.getInt());
+            double[] prices = new double[available(in, priceCount, Double.BYTES)];
+            in.asDoubleBuffer().get(prices);
+            in.position(in.position() + priceCount * Double.BYTES);
+            int[] priceOrdinals = readInts(in, priceCount);
+
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Snapshot is truncated");
+            }
+            SearchIndexSnapshot snapshot = new SearchIndexSnapshot(takenAt, docs, nameLengths, descriptionLengths,
+                    nameTerms, descriptionTerms, categories, prices, priceOrdinals);
+            snapshot.checkRanges();
+            return snapshot;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Snapshot is truncated or corrupt", e);
+        }
+    }
+
+    // Everything search indexes by ordinal must point at a product in docs; a stale or damaged file that
+    // passes the magic checks is rejected here rather than failing searches later
+    private void checkRanges() throws IOException {
+        int ordinals = docs.size();
+        if (liveCount() != prices.length) {
+            throw new IOException("Snapshot prices do not match its products");
+        }
+        for (int i = 0; i < priceOrdinals.length; i++) {
+            int ordinal = priceOrdinals[i];
+            if (ordinal < 0 || ordinal >= ordinals || docs.get(ordinal) == null) {
+                throw new IOException("Price entry for ordinal " + ordinal + " has no product");
+            }
+            if (i > 0 && (Double.compare(prices[i - 1], prices[i]) > 0
+                    || (Double.compare(prices[i - 1], prices[i]) == 0 && priceOrdinals[i - 1] >= ordinal))) {
+                throw new IOException("Snapshot prices are out of order");
+            }
+        }
+        for (Map.Entry<String, BitSet> category : categories.entrySet()) {
+            if (category.getValue().length() > ordinals) {
+                throw new IOException("Category '" + category.getKey() + "' is out of range");
+            }
+        }
+    }
+
+    private static void writeProduct(DataOutputStream out, Product product) throws IOException {
+        writeString(out, product.getId());
+        writeString(out, product.getName());
+        writeString(out, product.getDescription());
+        out.writeDouble(product.getPrice());
+        writeString(out, product.getImageUrl());
+        writeString(out, product.getCategory());
+        out.writeInt(product.getStock());
+        writeString(out, product.getSellerId());
+        out.writeLong(product.getUpdatedAt() == null ? NO_TIME : product.getUpdatedAt().toEpochMilli());
+    }
+
+    private static Product readProduct(ByteBuffer in) {
+        Product product = new Product();
+        product.setId(readString(in));
+        product.setName(readString(in));
+        product.setDescription(readString(in));
+        product.setPrice(in.getDouble());
+        product.setImageUrl(readString(in));
+        product.setCategory(readString(in));
+        product.setStock(in.getInt());
+        product.setSellerId(readString(in));
+        long updatedAt = in.getLong();
+        product.setUpdatedAt(updatedAt == NO_TIME ? null : Instant.ofEpochMilli(updatedAt));
+        return product;
+    }
+
+    private static void writeTerms(DataOutputStream out, Map<String, Postings> terms) throws IOException {
+        out.writeInt(terms.size());
+        for (Map.Entry<String, Postings> term : terms.entrySet()) {
+            writeString(out, term.getKey());
+            Postings postings = term.getValue();
+            out.writeInt(postings.size());
+            for (int i = 0; i < postings.size(); i++) {
+                out.writeInt(postings.ordinalAt(i));
+            }
+            for (int i = 0; i < postings.size(); i++) {
+                out.writeInt(postings.frequencyAt(i));
+            }
+        }
+    }
+
+    private static NavigableMap<String, Postings> readTerms(ByteBuffer in, int ordinals) throws IOException {
+        int count = nonNegative(in.getInt());
+        NavigableMap<String, Postings> terms = new TreeMap<>();
+        for (int i = 0; i < count; i++) {
+            String term = readString(in);
+            int size = nonNegative(in.getInt());
+            int[] postingOrdinals = readInts(in, size);
+            int[] frequencies = readInts(in, size);
+            for (int j = 0; j < size; j++) {
+                if (postingOrdinals[j] < 0 || postingOrdinals[j] >= ordinals
+                        || (j > 0 && postingOrdinals[j - 1] >= postingOrdinals[j])) {
+                    throw new IOException("Posting for term '" + term + "' is out of range");
+                }
+            }
+            terms.put(term, new Postings(postingOrdinals, frequencies));
+        }
+        return terms;
+    }
+
+    private static int[] readInts(ByteBuffer in, int count) {
+        int[] values = new int[available(in, count, Integer.BYTES)];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    // Length-prefixed UTF-8 (writeUTF stops at 64KB, descriptions may not); -1 for null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[available(in, length, 1)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Checks a count read from the file against what is left, so a corrupt count cannot allocate gigabytes
+    private static int available(ByteBuffer in, int count, int bytesEach) {
+        if (count < 0 || (long) count * bytesEach > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return count;
+    }
+
+    private static int nonNegative(int count) throws IOException {
+        if (count < 0) {
+            throw new IOException("Negative count in snapshot");
+        }
+        return count;
+    }
+}
@@ -0,0 +1,81 @@
+package com.nus.sellr.product.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+
+/**
+ * Where ProductSearchIndex keeps its snapshot between restarts, and how often it is
+ * rewritten. Disabled unless sellr.search.snapshot.path is set. A snapshot is written
+ * to a temporary file and moved into place, so readers never see a partial file.
+ */
+@Component
+public class SearchIndexSnapshotStore {
+
+    private final Path path;
+    private final Duration interval;
+    private final Duration replayMargin;
+
+    public SearchIndexSnapshotStore(@Value("${sellr.search.snapshot.path:}") String path,
+                                    @Value("${sellr.search.snapshot.interval-seconds:300}") long intervalSeconds,
+                                    @Value("${sellr.search.snapshot.replay-margin-seconds:120}")
+                                    long replayMarginSeconds) {
+        this.path = path == null || path.isBlank() ? null : Paths.get(path);
+        this.interval = Duration.ofSeconds(Math.max(1, intervalSeconds));
+        this.replayMargin = Duration.ofSeconds(Math.max(0, replayMarginSeconds));
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    // Products changed this long before a snapshot was taken are replayed too: writes still on their way
+    // through the event bus when it was taken, and clock skew between instances
+    public Duration getReplayMargin() {
+        return replayMargin;
+    }
+
+    // Null when disabled, missing or unreadable; the caller then builds from Mongo
+    SearchIndexSnapshot load() {
+        if (path == null || !Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            return SearchIndexSnapshot.read(path);
+        } catch (IOException e) {
+            System.out.println("Ignoring search index snapshot " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    boolean save(SearchIndexSnapshot snapshot) {
+        if (path == null) {
+            return false;
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                snapshot.writeTo(out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Could not write search index snapshot " + path + ": " + e.getMessage());
+            return false;
+        }
+    }
+}
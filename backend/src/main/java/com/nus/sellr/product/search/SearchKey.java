@@ -0,0 +1,46 @@
+package com.nus.sellr.product.search;
+
+import java.util.Locale;
+import java.util.Objects;
+
+// Cache key for a search: q trimmed and lower-cased (search matches it case-insensitively),
+// category kept exact unless blank
+final class SearchKey {
+
+    private final String q;
+    private final String category;
+
+    SearchKey(String q, String category) {
+        this.q = normalizeQuery(q);
+        this.category = normalizeCategory(category);
+    }
+
+    String getCategory() {
+        return category;
+    }
+
+    static String normalizeQuery(String q) {
+        return q == null ? "" : q.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String normalizeCategory(String category) {
+        return category == null || category.isBlank() ? "" : category;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchKey)) {
+            return false;
+        }
+        SearchKey other = (SearchKey) o;
+        return q.equals(other.q) && category.equals(other.category);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(q, category);
+    }
+}
@@ -0,0 +1,119 @@
+package com.nus.sellr.product.search;
+
+import com.nus.sellr.common.cache.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Serialized JSON bodies of /api/products/search responses, keyed by the normalized
+ * query tuple, so a popular search is answered without running the query, the count
+ * or the serializer. Entries are dropped when a product in the same category changes
+ * (faceted pages on any change, as their counts span every category); the short TTL
+ * bounds staleness from writes made by other instances. A body computed while an
+ * invalidation happened is not stored, as it may predate the change.
+ */
+@Component
+public class SearchResultCache {
+
+    private final LruCache<Key, byte[]> bodies;
+    private final int maxEntryBytes;
+    // bumped by every invalidation, so a put can tell whether one happened while its search ran
+    private long generation;
+
+    public SearchResultCache(@Value("${sellr.search.result-cache.size:300}") int size,
+                             @Value("${sellr.search.result-cache.ttl-seconds:30}") long ttlSeconds,
+                             @Value("${sellr.search.result-cache.max-entry-bytes:131072}") int maxEntryBytes) {
+        this.bodies = new LruCache<>(size, Duration.ofSeconds(ttlSeconds));
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    public static Key key(String q, String category, PriceRange price, Pageable pageable, boolean fuzzy,
+                          boolean facets) {
+        return new Key(q, category, price, pageable, fuzzy, facets);
+    }
+
+    // The cached body; callers must not modify it
+    public byte[] get(Key key) {
+        return bodies.get(key);
+    }
+
+    // Read before running the search and pass to put
+    public synchronized long generation() {
+        return generation;
+    }
+
+    // Skipped if anything was invalidated since startGeneration; oversized bodies (very large pages) are not kept
+    public synchronized void put(Key key, byte[] body, long startGeneration) {
+        if (startGeneration == generation && body.length <= maxEntryBytes) {
+            bodies.put(key, body);
+        }
+    }
+
+    public synchronized void invalidateCategory(String category) {
+        String normalized = SearchKey.normalizeCategory(category);
+        generation++;
+        bodies.invalidateIf(key -> key.facets || key.search.getCategory().isEmpty()
+                || key.search.getCategory().equals(normalized));
+    }
+
+    public synchronized void clear() {
+        generation++;
+        bodies.clear();
+    }
+
+    public int size() {
+        return bodies.size();
+    }
+
+    // (q, category) normalized as for the count cache, plus everything else that shapes the page
+    public static final class Key {
+        private final SearchKey search;
+        private final double minPrice;
+        private final double maxPrice;
+        private final int page;
+        private final int size;
+        private final Sort sort;
+        private final boolean fuzzy;
+        private final boolean facets;
+
+        private Key(String q, String category, PriceRange price, Pageable pageable, boolean fuzzy, boolean facets) {
+            this.search = new SearchKey(q, category);
+            this.minPrice = price.getMinOrDefault();
+            this.maxPrice = price.getMaxOrDefault();
+            this.page = pageable.getPageNumber();
+            this.size = pageable.getPageSize();
+            this.sort = pageable.getSort();
+            this.fuzzy = fuzzy;
+            this.facets = facets;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return search.equals(other.search)
+                    && Double.compare(minPrice, other.minPrice) == 0
+                    && Double.compare(maxPrice, other.maxPrice) == 0
+                    && page == other.page
+                    && size == other.size
+                    && sort.equals(other.sort)
+                    && fuzzy == other.fuzzy
+                    && facets == other.facets;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(search, minPrice, maxPrice, page, size, sort, fuzzy, facets);
+        }
+    }
+}
@@ -1,48 +1,123 @@
 package com.nus.sellr.product.service;
 
+import com.nus.sellr.common.dto.CursorPage;
+import com.nus.sellr.product.cache.ProductCache;
+import com.mongodb.bulk.BulkWriteResult;
+import com.nus.sellr.product.dto.CategoryCountsResponse;
+import com.nus.sellr.product.dto.FacetedPage;
+import com.nus.sellr.product.dto.ProductBulkUpdateResult;
+import com.nus.sellr.product.dto.ProductCacheStats;
+import com.nus.sellr.product.dto.ProductPatch;
 import com.nus.sellr.product.dto.ProductRequest;
 import com.nus.sellr.product.dto.ProductResponse;
+import com.nus.sellr.product.dto.ProductSuggestion;
+import com.nus.sellr.product.dto.ProductSummary;
+import com.nus.sellr.product.dto.SearchFacets;
 import com.nus.sellr.product.entity.Product;
+import com.nus.sellr.product.event.ProductChangeEvent;
+import com.nus.sellr.product.event.ProductEventBus;
 import com.nus.sellr.product.mapper.ProductMapper;
 import com.nus.sellr.product.repository.ProductRepository;
-import com.nus.sellr.user.repository.SellerRepository;
+import com.nus.sellr.product.search.LowStockIndex;
+import com.nus.sellr.product.search.ProductCategoryRegistry;
+import com.nus.sellr.product.search.ProductPopularity;
+import com.nus.sellr.product.search.ProductSearchCursor;
+import com.nus.sellr.product.search.PriceRange;
+import com.nus.sellr.product.search.ProductSearchIndex;
+import com.nus.sellr.product.search.ProductSuggester;
+import com.nus.sellr.product.search.SearchCount;
+import com.nus.sellr.product.search.SearchCountCache;
+import com.nus.sellr.product.search.SearchCountMode;
+import com.nus.sellr.product.search.SearchFacetCache;
+import com.nus.sellr.user.cache.SellerDirectory;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
 
+    private static final int MAX_BULK_UPDATE = 1000;
+    private static final int MAX_SELLER_PAGE_SIZE = 200;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final ProductRepository productRepository;
     private final MongoTemplate mongoTemplate;
     private final ProductMapper productMapper;
-    private final SellerRepository sellerRepository;
+    private final SellerDirectory sellerDirectory;
+    private final ProductSearchIndex productSearchIndex;
+    private final SearchCountCache searchCountCache;
+    private final SearchFacetCache searchFacetCache;
+    private final ProductCategoryRegistry categoryRegistry;
+    private final ProductCache productCache;
+    private final ProductSuggester productSuggester;
+    private final ProductPopularity productPopularity;
+    private final ProductEventBus productEventBus;
+    private final LowStockIndex lowStockIndex;
 
     public ProductService(
             ProductRepository productRepository,
             MongoTemplate mongoTemplate,
-            ProductMapper productMapper, SellerRepository sellerRepository) {
+            ProductMapper productMapper, SellerDirectory sellerDirectory,
+            ProductSearchIndex productSearchIndex,
+            SearchCountCache searchCountCache,
+            SearchFacetCache searchFacetCache,
+            ProductCategoryRegistry categoryRegistry,
+            ProductCache productCache,
+            ProductSuggester productSuggester,
+            ProductPopularity productPopularity,
+            ProductEventBus productEventBus,
+            LowStockIndex lowStockIndex) {
         this.productRepository = productRepository;
         this.mongoTemplate = mongoTemplate;
         this.productMapper = productMapper;
-        this.sellerRepository = sellerRepository;
+        this.sellerDirectory = sellerDirectory;
+        this.productSearchIndex = productSearchIndex;
+        this.searchCountCache = searchCountCache;
+        this.searchFacetCache = searchFacetCache;
+        this.categoryRegistry = categoryRegistry;
+        this.productCache = productCache;
+        this.productSuggester = productSuggester;
+        this.productPopularity = productPopularity;
+        this.productEventBus = productEventBus;
+        this.lowStockIndex = lowStockIndex;
     }
 
     // Create new product
     public ProductResponse createProduct(ProductRequest request) {
         Product product = productMapper.toProduct(request);
+        product.setUpdatedAt(Instant.now());
 
         Product savedProduct = productRepository.save(product);
+        afterSave(savedProduct);
 
         return productMapper.toResponse(savedProduct);
     }
@@ -59,15 +134,24 @@ public class ProductService {
         return responses;
     }
 
+    // Stream every product to the sink straight off a Mongo cursor, so memory stays flat
+    public void streamAllProducts(Consumer<ProductResponse> sink) {
+        try (CloseableIterator<Product> products = mongoTemplate.stream(new Query(), Product.class)) {
+            while (products.hasNext()) {
+                sink.accept(productMapper.toResponse(products.next()));
+            }
+        }
+    }
+
     // Get single product by ID
     public ProductResponse getProductById(String id) {
-        Product product = productRepository.findById(id)
+        Product product = productCache.get(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + id));
 
         ProductResponse response = productMapper.toResponse(product);
 
-        // ✅ Fetch and attach seller name
-        sellerRepository.findById(product.getSellerId())
+        // ✅ Attach seller name from the cached seller directory
+        sellerDirectory.find(product.getSellerId())
                 .ifPresentOrElse(
                         seller -> response.setSellerName(seller.getUsername()),
                         () -> response.setSellerName("Unknown Seller"));
@@ -89,8 +173,10 @@ public class ProductService {
         existing.setImageUrl(request.getImageUrl());
         existing.setStock(request.getStock());
         existing.setCategory(request.getCategory());
+        existing.setUpdatedAt(Instant.now());
 
         Product updated = productRepository.save(existing);
+        afterSave(updated);
 
         return productMapper.toResponse(updated);
     }
@@ -101,10 +187,337 @@ public class ProductService {
             throw new IllegalArgumentException("Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        afterDelete(id);
     }
 
-    // Search product
+    // The read-through cache is dropped right away so the writer reads its own write; the search index,
+    // suggester, category registry and count/facet caches follow through the event bus (see ProductIndexUpdater)
+    private void afterSave(Product saved) {
+        if (saved == null) {
+            return;
+        }
+        productCache.invalidate(saved.getId());
+        productEventBus.publish(ProductChangeEvent.saved(saved));
+    }
+
+    // Partial price/stock/category updates for many products in one unordered bulk write ($set / $inc),
+    // with no read before the write. The changed products are re-read in one query to refresh the index.
+    // A negative stockDelta only applies while stock covers it, so those patches are conditional
+    // findAndModify calls instead (as in decrementStock): no match means the stock was too low, or the
+    // product is gone, which the re-read tells apart.
+    public ProductBulkUpdateResult bulkUpdate(List<ProductPatch> patches) {
+        validatePatches(patches);
+
+        BulkOperations ops = null;
+        List<String> ids = new ArrayList<>(patches.size());
+        List<String> unmatchedIds = new ArrayList<>();
+        Map<String, Product> updated = new HashMap<>();
+        int conditionalApplied = 0;
+        FindAndModifyOptions returnNew = FindAndModifyOptions.options().returnNew(true);
+        Instant now = Instant.now();
+        for (ProductPatch patch : patches) {
+            Update update = new Update().set("updatedAt", now);
+            if (patch.getPrice() != null) {
+                update.set("price", patch.getPrice());
+            }
+            if (patch.getStock() != null) {
+                update.set("stock", patch.getStock());
+            }
+            if (patch.getStockDelta() != null) {
+                update.inc("stock", patch.getStockDelta());
+            }
+            if (patch.getCategory() != null) {
+                update.set("category", patch.getCategory());
+            }
+            if (patch.getStockDelta() != null && patch.getStockDelta() < 0) {
+                Product applied = mongoTemplate.findAndModify(
+                        Query.query(Criteria.where("id").is(patch.getId()).and("stock").gte(-patch.getStockDelta())),
+                        update, returnNew, Product.class);
+                if (applied != null) {
+                    updated.put(applied.getId(), applied);
+                    conditionalApplied++;
+                } else {
+                    unmatchedIds.add(patch.getId());
+                }
+                continue;
+            }
+            if (ops == null) {
+                ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+            }
+            ops.updateOne(Query.query(Criteria.where("id").is(patch.getId())), update);
+            ids.add(patch.getId());
+        }
+        BulkWriteResult written = ops == null ? null : ops.execute();
+
+        List<String> insufficientStockIds = new ArrayList<>();
+        List<String> reread = new ArrayList<>(ids);
+        reread.addAll(unmatchedIds);
+        if (!reread.isEmpty()) {
+            for (Product product : productRepository.findAllById(reread)) {
+                if (unmatchedIds.contains(product.getId())) {
+                    insufficientStockIds.add(product.getId());
+                } else {
+                    updated.put(product.getId(), product);
+                }
+            }
+        }
+        afterSaveAll(new ArrayList<>(updated.values()));
+
+        ProductBulkUpdateResult result = new ProductBulkUpdateResult();
+        result.setMatched((written == null ? 0 : written.getMatchedCount()) + conditionalApplied);
+        result.setModified((written == null ? 0 : written.getModifiedCount()) + conditionalApplied);
+        result.setInsufficientStockIds(insufficientStockIds);
+        for (ProductPatch patch : patches) {
+            if (!updated.containsKey(patch.getId()) && !insufficientStockIds.contains(patch.getId())) {
+                result.getMissingIds().add(patch.getId());
+            }
+        }
+        return result;
+    }
+
+    private void validatePatches(List<ProductPatch> patches) {
+        if (patches == null || patches.isEmpty()) {
+            throw new IllegalArgumentException("No product updates given");
+        }
+        if (patches.size() > MAX_BULK_UPDATE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_UPDATE + " products per bulk update");
+        }
+        Set<String> seen = new HashSet<>();
+        for (ProductPatch patch : patches) {
+            if (patch.getId() == null || !seen.add(patch.getId())) {
+                throw new IllegalArgumentException("Each update needs a distinct product id");
+            }
+            if (patch.getPrice() == null && patch.getStock() == null && patch.getStockDelta() == null
+                    && patch.getCategory() == null) {
+                throw new IllegalArgumentException("Nothing to update for product " + patch.getId());
+            }
+            if (patch.getPrice() != null && (!Double.isFinite(patch.getPrice()) || patch.getPrice() < 0)) {
+                throw new IllegalArgumentException("price must be zero or more for product " + patch.getId());
+            }
+            if (patch.getStock() != null && patch.getStock() < 0) {
+                throw new IllegalArgumentException("stock must be zero or more for product " + patch.getId());
+            }
+            if (patch.getStock() != null && patch.getStockDelta() != null) {
+                throw new IllegalArgumentException("Use stock or stockDelta, not both, for product " + patch.getId());
+            }
+        }
+    }
+
+    public void onProductsImported(List<Product> saved) {
+        afterSaveAll(saved);
+    }
+
+    // Bulk counterpart of afterSave: one publish for the batch, which the bus delivers together
+    private void afterSaveAll(List<Product> saved) {
+        List<ProductChangeEvent> events = new ArrayList<>(saved.size());
+        for (Product product : saved) {
+            productCache.invalidate(product.getId());
+            events.add(ProductChangeEvent.saved(product));
+        }
+        productEventBus.publishAll(events);
+    }
+
+    private void afterDelete(String id) {
+        productCache.invalidate(id);
+        productEventBus.publish(ProductChangeEvent.deleted(id));
+    }
+
+    // Search product: answered from the in-memory index when it is built, otherwise by Mongo regex
     public Page<ProductResponse> search(String q, String category, Pageable pageable) {
+        return search(q, category, pageable, false);
+    }
+
+    // fuzzy also matches name words within one or two typos; it needs the index, so the regex fallback is exact.
+    // Sorting by "relevance" ranks by BM25 plus sales volume, also index-only: the fallback lists newest first.
+    public Page<ProductResponse> search(String q, String category, Pageable pageable, boolean fuzzy) {
+        return search(q, category, PriceRange.ANY, pageable, fuzzy);
+    }
+
+    // price narrows the hits to an inclusive range; the index answers it by binary search over sorted prices
+    public Page<ProductResponse> search(String q, String category, PriceRange price, Pageable pageable,
+                                        boolean fuzzy) {
+        if (ProductSearchIndex.isRelevance(pageable.getSort())) {
+            if (productSearchIndex.isReady()) {
+                return productSearchIndex
+                        .searchByRelevance(q, category, price, pageable, fuzzy, productPopularity::boost)
+                        .map(productMapper::toResponse);
+            }
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id").descending());
+        }
+        if (productSearchIndex.isReady() && productSearchIndex.supports(pageable.getSort())) {
+            return productSearchIndex.search(q, category, price, pageable, fuzzy).map(productMapper::toResponse);
+        }
+        return regexSearch(q, category, price, pageable);
+    }
+
+    private Page<ProductResponse> regexSearch(String q, String category, PriceRange price, Pageable pageable) {
+        List<Criteria> criteriaList = searchCriteria(q, category);
+        if (!price.isUnbounded()) {
+            criteriaList.add(price.toCriteria());
+        }
+        Query query = new Query(and(criteriaList)).with(pageable);
+
+        // fetch data
+        List<Product> products = mongoTemplate.find(query, Product.class);
+
+        // count for pagination (cached per normalized q/category; price-filtered totals are counted directly)
+        long total = price.isUnbounded()
+                ? countMatches(q, category, query, SearchCountMode.EXACT).getValue()
+                : mongoTemplate.count(Query.of(query).skip(-1).limit(-1), Product.class);
+
+        // map to DTO
+        List<ProductResponse> responses = productMapper.toResponseList(products);
+
+        return new PageImpl<>(responses, pageable, total);
+    }
+
+    // Search plus category/price facets for the same query
+    public FacetedPage<ProductResponse> searchWithFacets(String q, String category, Pageable pageable,
+                                                         boolean fuzzy) {
+        return searchWithFacets(q, category, PriceRange.ANY, pageable, fuzzy);
+    }
+
+    // Facets ignore the price range so the price buckets still show what lies outside it
+    public FacetedPage<ProductResponse> searchWithFacets(String q, String category, PriceRange price,
+                                                         Pageable pageable, boolean fuzzy) {
+        return new FacetedPage<>(search(q, category, price, pageable, fuzzy), getFacets(q, category, fuzzy));
+    }
+
+    // Fuzzy facets come straight from the index (uncached); the cache holds exact-match facets only
+    public SearchFacets getFacets(String q, String category, boolean fuzzy) {
+        if (fuzzy && productSearchIndex.isReady()) {
+            return productSearchIndex.facets(q, category, searchFacetCache.getPriceBounds(), true);
+        }
+        return getFacets(q, category);
+    }
+
+    // Facets are computed in one pass over the index (or one $facet aggregation) and cached per normalized q/category
+    public SearchFacets getFacets(String q, String category) {
+        SearchFacets cached = searchFacetCache.get(q, category);
+        if (cached != null) {
+            return cached;
+        }
+
+        double[] bounds = searchFacetCache.getPriceBounds();
+        SearchFacets facets = productSearchIndex.isReady()
+                ? productSearchIndex.facets(q, category, bounds)
+                : aggregateFacets(q, category, bounds);
+        searchFacetCache.put(q, category, facets);
+        return facets;
+    }
+
+    private SearchFacets aggregateFacets(String q, String category, double[] bounds) {
+        // $bucket needs two boundaries at least; the extra top one keeps the last configured bucket open-ended
+        Object[] boundaries = new Object[bounds.length + 1];
+        for (int i = 0; i < bounds.length; i++) {
+            boundaries[i] = bounds[i];
+        }
+        boundaries[bounds.length] = Double.MAX_VALUE;
+
+        List<AggregationOperation> priceStages = new ArrayList<>();
+        if (category != null && !category.isBlank()) {
+            priceStages.add(Aggregation.match(Criteria.where("category").is(category)));
+        }
+        priceStages.add(Aggregation.bucket("price").withBoundaries(boundaries)
+                .withDefaultBucket("other").andOutputCount().as("count"));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(and(searchCriteria(q, null))),
+                Aggregation.facet(Aggregation.group("category").count().as("count")).as("categories")
+                        .and(priceStages.toArray(new AggregationOperation[0])).as("prices"));
+        Document result = mongoTemplate.aggregate(aggregation, Product.class, Document.class)
+                .getUniqueMappedResult();
+
+        Map<String, Long> categoryCounts = new HashMap<>();
+        long[] bucketCounts = new long[bounds.length];
+        if (result != null) {
+            for (Document row : result.getList("categories", Document.class, List.of())) {
+                if (row.get("_id") instanceof String) {
+                    categoryCounts.put(row.getString("_id"), ((Number) row.get("count")).longValue());
+                }
+            }
+            for (Document row : result.getList("prices", Document.class, List.of())) {
+                Object id = row.get("_id");
+                int bucket = id instanceof Number
+                        ? SearchFacetCache.bucketOf(bounds, ((Number) id).doubleValue())
+                        : bounds.length - 1;
+                bucketCounts[bucket] += ((Number) row.get("count")).longValue();
+            }
+        }
+        return SearchFacetCache.toFacets(categoryCounts, bounds, bucketCounts);
+    }
+
+    // Keyset search: rows after the "after" cursor, no skip, and a total only when countMode asks for one
+    public CursorPage<ProductResponse> searchAfter(String q, String category, Sort.Order order, String after,
+                                                  int size, SearchCountMode countMode) {
+        if (size <= 0 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        if (!ProductSearchCursor.supports(order.getProperty())) {
+            throw new IllegalArgumentException("Unsupported sort for cursor search: " + order.getProperty());
+        }
+        ProductSearchCursor cursor = null;
+        if (after != null && !after.isBlank()) {
+            cursor = ProductSearchCursor.decode(after);
+            cursor.checkMatches(order);
+        }
+
+        // Fetch one extra row to learn whether another slice follows
+        List<Product> products;
+        SearchCount total = null;
+        if (productSearchIndex.isReady()) {
+            products = productSearchIndex.searchAfter(q, category, Sort.by(order), cursor, size + 1);
+            if (countMode != SearchCountMode.NONE) {
+                total = new SearchCount(productSearchIndex.count(q, category), true);
+            }
+        } else {
+            List<Criteria> criteriaList = searchCriteria(q, category);
+            if (countMode != SearchCountMode.NONE) {
+                total = countMatches(q, category, new Query(and(criteriaList)), countMode);
+            }
+            if (cursor != null) {
+                criteriaList.add(cursor.toCriteria());
+            }
+            Query query = new Query(and(criteriaList))
+                    .with(ProductSearchCursor.keysetSort(order))
+                    .limit(size + 1);
+            products = mongoTemplate.find(query, Product.class);
+        }
+
+        String nextCursor = null;
+        if (products.size() > size) {
+            products = products.subList(0, size);
+            nextCursor = ProductSearchCursor.after(products.get(size - 1), order).encode();
+        }
+
+        CursorPage<ProductResponse> page = new CursorPage<>(productMapper.toResponseList(products), nextCursor, size,
+                total == null ? null : total.getValue());
+        page.setTotalEstimated(total != null && !total.isExact());
+        return page;
+    }
+
+    // Cached total for the regex query; ESTIMATE stops counting past the configured cap
+    private SearchCount countMatches(String q, String category, Query query, SearchCountMode mode) {
+        SearchCount cached = searchCountCache.get(q, category);
+        if (cached != null && (cached.isExact() || mode == SearchCountMode.ESTIMATE)) {
+            return cached;
+        }
+
+        long generation = searchCountCache.generation();
+        Query countQuery = Query.of(query).skip(-1).limit(-1);
+        SearchCount count;
+        if (mode == SearchCountMode.ESTIMATE) {
+            long cap = searchCountCache.getCountCap();
+            long capped = mongoTemplate.count(countQuery.limit((int) cap + 1), Product.class);
+            count = capped > cap ? new SearchCount(cap, false) : new SearchCount(capped, true);
+        } else {
+            count = new SearchCount(mongoTemplate.count(countQuery, Product.class), true);
+        }
+        searchCountCache.put(q, category, count, generation);
+        return count;
+    }
+
+    private List<Criteria> searchCriteria(String q, String category) {
         List<Criteria> criteriaList = new ArrayList<>();
 
         if (q != null && !q.isBlank()) {
@@ -117,33 +530,66 @@ public class ProductService {
         if (category != null && !category.isBlank()) {
             criteriaList.add(Criteria.where("category").is(category));
         }
+        return criteriaList;
+    }
 
+    private static Criteria and(List<Criteria> criteriaList) {
         Criteria criteria = new Criteria();
         if (!criteriaList.isEmpty()) {
             criteria.andOperator(criteriaList.toArray(new Criteria[0]));
         }
+        return criteria;
+    }
 
-        Query query = new Query(criteria).with(pageable);
-
-        // fetch data
-        List<Product> products = mongoTemplate.find(query, Product.class);
-
-        // count for pagination
-        long total = mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Product.class);
+    public Product getProductEntityById(String id) {
+        return productCache.get(id)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+    }
 
-        // map to DTO
-        List<ProductResponse> responses = productMapper.toResponseList(products);
+    // Checkout's stock decrement, applied in Mongo with a conditional $inc rather than a read-modify-save of a
+    // possibly stale copy. Stock never goes below zero: ordering more than is left empties it, as before.
+    public Product decrementStock(String id, int quantity) {
+        FindAndModifyOptions returnNew = FindAndModifyOptions.options().returnNew(true);
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Instant now = Instant.now();
+            Product updated = mongoTemplate.findAndModify(
+                    new Query(Criteria.where("id").is(id).and("stock").gte(quantity)),
+                    new Update().inc("stock", -quantity).set("updatedAt", now), returnNew, Product.class);
+            if (updated == null) {
+                updated = mongoTemplate.findAndModify(
+                        new Query(Criteria.where("id").is(id).and("stock").lt(quantity)),
+                        new Update().set("stock", 0).set("updatedAt", now), returnNew, Product.class);
+            }
+            if (updated != null) {
+                afterSave(updated);
+                return updated;
+            }
+            // neither matched: the product is gone, or it was restocked between the two updates
+            if (!productRepository.existsById(id)) {
+                throw new RuntimeException("Product not found");
+            }
+        }
+        throw new IllegalStateException("Stock of product " + id + " kept changing, please retry");
+    }
 
-        return new PageImpl<>(responses, pageable, total);
+    // Batch lookup for rendering carts, wishlists and orders: one query for every id not already cached
+    public Map<String, Product> getProductsByIds(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return productCache.getAll(ids);
     }
 
-    public Product getProductEntityById(String id) {
-        return productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+    // Feeds the popularity signal used by relevance search
+    public void recordSale(String productId, int quantity) {
+        productPopularity.recordSale(productId, quantity);
     }
 
     public Product saveProduct(Product product) {
-        return productRepository.save(product);
+        product.setUpdatedAt(Instant.now());
+        Product saved = productRepository.save(product);
+        afterSave(saved);
+        return saved;
     }
 
     public List<ProductResponse> getProductsBySellerId(String sellerId) {
@@ -152,6 +598,51 @@ public class ProductService {
                 .collect(Collectors.toList());
     }
 
+    // One slice of a seller's catalog in _id order, without descriptions; "after" is the last id of the previous slice
+    public CursorPage<ProductSummary> getProductSummariesBySellerId(String sellerId, String after, int size) {
+        if (size <= 0 || size > MAX_SELLER_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_SELLER_PAGE_SIZE);
+        }
+        Criteria criteria = Criteria.where("sellerId").is(sellerId);
+        if (after != null && !after.isBlank()) {
+            if (!ObjectId.isValid(after)) {
+                throw new IllegalArgumentException("Invalid cursor: " + after);
+            }
+            criteria = criteria.and("_id").gt(new ObjectId(after));
+        }
+        // walks the (sellerId, _id) index in order; one extra row tells whether another slice follows
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(size + 1);
+        query.fields().include("name", "price", "imageUrl", "category", "stock");
+        List<Product> products = mongoTemplate.find(query, Product.class);
+
+        String nextCursor = null;
+        if (products.size() > size) {
+            products = products.subList(0, size);
+            nextCursor = products.get(size - 1).getId();
+        }
+        List<ProductSummary> content = new ArrayList<>(products.size());
+        for (Product product : products) {
+            content.add(productMapper.toSummary(product));
+        }
+        return new CursorPage<>(content, nextCursor, size, null);
+    }
+
+    // Served from the low-stock index, lowest stock first; queries Mongo only if the index failed to load
+    public List<ProductResponse> getLowStockProducts(String sellerId) {
+        List<Product> products;
+        if (lowStockIndex.isReady()) {
+            products = lowStockIndex.getLowStock(sellerId);
+        } else {
+            Query query = new Query(Criteria.where("sellerId").is(sellerId)
+                    .and("stock").lt(ProductMapper.LOW_STOCK_THRESHOLD))
+                    .with(Sort.by("stock", "_id"));
+            products = mongoTemplate.find(query, Product.class);
+        }
+        return productMapper.toResponseList(products);
+    }
+
     private ProductResponse toResponse(Product product) {
         return new ProductResponse(
                 product.getId(),
@@ -165,12 +656,24 @@ public class ProductService {
         );
     }
 
+    // Served from the in-memory registry; falls back to a server-side distinct if it failed to load
     public List<String> getAllCategories() {
-        // Get products with only category populated, then extract distinct categories
-        return productRepository.findAllCategories()
-                .stream()
-                .map(Product::getCategory)
-                .distinct()
-                .collect(Collectors.toList());
+        if (categoryRegistry.isReady()) {
+            return categoryRegistry.getCategories();
+        }
+        return mongoTemplate.findDistinct(new Query(), "category", Product.class, String.class);
+    }
+
+    public CategoryCountsResponse getCategoryCounts() {
+        return categoryRegistry.getCounts();
+    }
+
+    public ProductCacheStats getCacheStats() {
+        return productCache.getStats();
+    }
+
+    // Autocomplete from the in-memory trie; limit is capped at sellr.suggest.max-results
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        return productSuggester.suggest(prefix, Math.min(limit, productSuggester.getMaxResults()));
     }
 }
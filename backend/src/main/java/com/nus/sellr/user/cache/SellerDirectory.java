@@ -0,0 +1,108 @@
+package com.nus.sellr.user.cache;
+
+import com.nus.sellr.common.cache.LruCache;
+import com.nus.sellr.user.dto.SellerSummary;
+import com.nus.sellr.user.entity.Seller;
+import com.nus.sellr.user.repository.SellerRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cached seller id -> username/storeName lookup for product pages and order history.
+ * Unknown ids are cached too, so an order line pointing at a deleted seller does not
+ * hit Mongo on every view. UserService invalidates an id whenever a seller is saved or deleted.
+ */
+@Component
+public class SellerDirectory {
+
+    private final SellerRepository sellerRepository;
+    private final LruCache<String, Optional<SellerSummary>> entries;
+    // bumped on every invalidation, so responses showing seller names can be tagged (see CatalogETagInterceptor)
+    private final AtomicLong version = new AtomicLong();
+
+    public SellerDirectory(SellerRepository sellerRepository,
+                           @Value("${sellr.seller-directory.size:5000}") int size,
+                           @Value("${sellr.seller-directory.ttl-seconds:600}") long ttlSeconds) {
+        this.sellerRepository = sellerRepository;
+        this.entries = new LruCache<>(size, Duration.ofSeconds(ttlSeconds));
+    }
+
+    public Optional<SellerSummary> find(String sellerId) {
+        if (sellerId == null) {
+            return Optional.empty();
+        }
+        Optional<SellerSummary> cached = entries.get(sellerId);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<SellerSummary> loaded = sellerRepository.findById(sellerId).map(SellerDirectory::toSummary);
+        entries.put(sellerId, loaded);
+        return loaded;
+    }
+
+    // Username for display, or null when the seller no longer exists
+    public String getUsername(String sellerId) {
+        return find(sellerId).map(SellerSummary::getUsername).orElse(null);
+    }
+
+    // Usernames for a whole result set: cached ids are served directly, the rest come from one query.
+    // Ids of deleted sellers are left out of the map (and cached as unknown).
+    public Map<String, String> getUsernames(Collection<String> sellerIds) {
+        Map<String, String> usernames = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String id : sellerIds) {
+            if (id == null || usernames.containsKey(id) || missing.contains(id)) {
+                continue;
+            }
+            Optional<SellerSummary> cached = entries.get(id);
+            if (cached == null) {
+                missing.add(id);
+            } else {
+                cached.ifPresent(seller -> usernames.put(id, seller.getUsername()));
+            }
+        }
+        if (missing.isEmpty()) {
+            return usernames;
+        }
+        for (Seller seller : sellerRepository.findAllById(new ArrayList<>(missing))) {
+            SellerSummary summary = toSummary(seller);
+            entries.put(seller.getId(), Optional.of(summary));
+            usernames.put(seller.getId(), summary.getUsername());
+            missing.remove(seller.getId());
+        }
+        for (String id : missing) {
+            entries.put(id, Optional.empty());
+        }
+        return usernames;
+    }
+
+    public void invalidate(String sellerId) {
+        if (sellerId != null) {
+            entries.invalidate(sellerId);
+            version.incrementAndGet();
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        version.incrementAndGet();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    private static SellerSummary toSummary(Seller seller) {
+        return new SellerSummary(seller.getId(), seller.getUsername(), seller.getStoreName());
+    }
+}
@@ -0,0 +1,17 @@
+package com.nus.sellr.user.dto;
+
+import lombok.Getter;
+
+// The seller fields shown next to products and order lines
+@Getter
+public class SellerSummary {
+    private final String id;
+    private final String username;
+    private final String storeName;
+
+    public SellerSummary(String id, String username, String storeName) {
+        this.id = id;
+        this.username = username;
+        this.storeName = storeName;
+    }
+}
@@ -1,5 +1,6 @@
 package com.nus.sellr.user.service;
 
+import com.nus.sellr.user.cache.SellerDirectory;
 import com.nus.sellr.user.dto.*;
 import com.nus.sellr.user.entity.*;
 import com.nus.sellr.user.factory.UserFactory;
@@ -30,19 +31,22 @@ public class UserService {
     private final UserRepository userRepository;
 
     private final JwtUtils jwtUtils;
+    private final SellerDirectory sellerDirectory;
 
     public UserService(AdminRepository adminRepository,
                        BuyerRepository buyerRepository,
                        SellerRepository sellerRepository,
                        UserFactory userFactory,
                        UserRepository userRepository,
-                       JwtUtils jwtUtils) {
+                       JwtUtils jwtUtils,
+                       SellerDirectory sellerDirectory) {
         this.adminRepository = adminRepository;
         this.buyerRepository = buyerRepository;
         this.sellerRepository = sellerRepository;
         this.userFactory = userFactory;
         this.userRepository = userRepository;
         this.jwtUtils = jwtUtils;
+        this.sellerDirectory = sellerDirectory;
     }
 
     public CreateUserResponse createUser(CreateUserRequest request) {
@@ -177,6 +181,7 @@ public class UserService {
             adminRepository.delete((Admin) user);
         } else if (user instanceof Seller) {
             sellerRepository.delete((Seller) user);
+            sellerDirectory.invalidate(user.getId());
         } else if (user instanceof Buyer) {
             buyerRepository.delete((Buyer) user);
         } else {
@@ -195,6 +200,7 @@ public class UserService {
             role = ADMIN;
         } else if (user instanceof Seller) {
             sellerRepository.save((Seller) user);
+            sellerDirectory.invalidate(user.getId());
             role = SELLER;
         } else if (user instanceof Buyer) {
             buyerRepository.save((Buyer) user);
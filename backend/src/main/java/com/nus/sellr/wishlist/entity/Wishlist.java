@@ -3,6 +3,7 @@ package com.nus.sellr.wishlist.entity;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.ArrayList;
@@ -15,6 +16,7 @@ public class Wishlist {
 
     @Id
     private String id;
+    @Indexed
     private String userId;
     private List<WishlistItem> items = new ArrayList<>();
 
@@ -1,7 +1,7 @@
 package com.nus.sellr.wishlist.service;
 
 import com.nus.sellr.product.entity.Product;
-import com.nus.sellr.product.repository.ProductRepository;
+import com.nus.sellr.product.service.ProductService;
 import com.nus.sellr.wishlist.dto.WishlistDTO;
 import com.nus.sellr.wishlist.dto.WishlistItemDTO;
 import com.nus.sellr.wishlist.entity.Wishlist;
@@ -10,6 +10,7 @@ import com.nus.sellr.wishlist.repository.WishlistRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -17,19 +18,18 @@ import java.util.stream.Collectors;
 public class WishlistService {
 
     private final WishlistRepository wishlistRepository;
-    private final ProductRepository productRepository;
+    private final ProductService productService;
 
-    public WishlistService(WishlistRepository wishlistRepository, ProductRepository productRepository) {
+    public WishlistService(WishlistRepository wishlistRepository, ProductService productService) {
         this.wishlistRepository = wishlistRepository;
-        this.productRepository = productRepository;
+        this.productService = productService;
     }
 
     public WishlistDTO addProduct(String userId, String productId) {
         Wishlist wishlist = Optional.ofNullable(wishlistRepository.findByUserId(userId))
                 .orElseGet(() -> new Wishlist(userId));
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+        Product product = productService.getProductEntityById(productId);
 
         Optional<WishlistItem> existingItem = wishlist.getItems().stream()
                 .filter(item -> item.getProductId().equals(product.getId()))
@@ -61,11 +61,15 @@ public class WishlistService {
     }
 
     private WishlistDTO convertToDTO(Wishlist wishlist) {
+        // One lookup for the whole wishlist rather than one per item
+        Map<String, Product> products = productService.getProductsByIds(wishlist.getItems().stream()
+                .map(WishlistItem::getProductId)
+                .collect(Collectors.toList()));
+
         List<WishlistItemDTO> itemDTOs = wishlist.getItems().stream()
                 .map(item -> {
-                    Optional<Product> productOpt = productRepository.findById(item.getProductId());
-                    if (productOpt.isPresent()) {
-                        Product product = productOpt.get();
+                    Product product = products.get(item.getProductId());
+                    if (product != null) {
                         return new WishlistItemDTO(
                                 product.getId(),
                                 product.getName(),
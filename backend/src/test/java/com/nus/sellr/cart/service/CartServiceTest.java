@@ -5,12 +5,13 @@ import com.nus.sellr.cart.entity.Cart;
 import com.nus.sellr.cart.entity.CartItem;
 import com.nus.sellr.cart.repository.CartRepository;
 import com.nus.sellr.product.entity.Product;
-import com.nus.sellr.product.repository.ProductRepository;
+import com.nus.sellr.product.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -21,7 +22,7 @@ class CartServiceTest {
     private CartRepository cartRepository;
 
     @Mock
-    private ProductRepository productRepository;
+    private ProductService productService;
 
     @InjectMocks
     private CartService cartService;
@@ -43,7 +44,8 @@ class CartServiceTest {
         product.setPrice(100.0);
 
         when(cartRepository.findByUserId(userId)).thenReturn(null);
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productService.getProductEntityById(productId)).thenReturn(product);
+        when(productService.getProductsByIds(List.of(productId))).thenReturn(Map.of(productId, product));
 
         CartDTO result = cartService.addProductToCart(userId, productId, 2);
 
@@ -70,7 +72,8 @@ class CartServiceTest {
         product.setPrice(100.0);
 
         when(cartRepository.findByUserId(userId)).thenReturn(cart);
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productService.getProductEntityById(productId)).thenReturn(product);
+        when(productService.getProductsByIds(List.of(productId))).thenReturn(Map.of(productId, product));
 
         CartDTO result = cartService.addProductToCart(userId, productId, 2);
 
@@ -124,7 +127,8 @@ class CartServiceTest {
         product.setPrice(100.0);
 
         when(cartRepository.findByUserId(userId)).thenReturn(cart);
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productService.getProductEntityById(productId)).thenReturn(product);
+        when(productService.getProductsByIds(List.of(productId))).thenReturn(Map.of(productId, product));
 
         CartDTO result = cartService.updateProductQuantity(userId, productId, 5);
 
@@ -163,8 +167,8 @@ class CartServiceTest {
         Cart cart = new Cart("user1");
         cart.getItems().add(new CartItem("missingProduct", 2));
 
-        // productRepository.findById returns empty for missing product
-        when(productRepository.findById("missingProduct")).thenReturn(Optional.empty());
+        // batch lookup has no entry for the missing product
+        when(productService.getProductsByIds(anyCollection())).thenReturn(Map.of());
 
         CartDTO result = cartService.getCartByUserId("user1");
 
@@ -0,0 +1,47 @@
+package com.nus.sellr.common.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LruCacheTest {
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        LruCache<String, Integer> cache = new LruCache<>(2, null);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testExpiredEntriesAreMisses() throws InterruptedException {
+        LruCache<String, Integer> cache = new LruCache<>(10, Duration.ofMillis(1));
+        cache.put("a", 1);
+        Thread.sleep(5);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testInvalidateIf() {
+        LruCache<String, Integer> cache = new LruCache<>(10, Duration.ZERO);
+        cache.put("keep", 1);
+        cache.put("drop-1", 2);
+        cache.put("drop-2", 3);
+
+        cache.invalidateIf(key -> key.startsWith("drop"));
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.get("keep"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.nus.sellr.config;
+
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MongoIndexManagerTest {
+
+    private MongoTemplate mongoTemplate;
+    private MongoDatabase db;
+    private ApplicationEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        db = mock(MongoDatabase.class);
+        publisher = mock(ApplicationEventPublisher.class);
+        MongoConverter converter = mock(MongoConverter.class);
+        doReturn(new MongoMappingContext()).when(converter).getMappingContext();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.getCollectionName(any())).thenReturn("collection");
+        when(mongoTemplate.getDb()).thenReturn(db);
+    }
+
+    private void planAll(Document winningPlan) {
+        when(db.runCommand(any(Document.class)))
+                .thenReturn(new Document("queryPlanner", new Document("winningPlan", winningPlan)));
+    }
+
+    private static Document stage(String name, Document input) {
+        Document stage = new Document("stage", name);
+        return input == null ? stage : stage.append("inputStage", input);
+    }
+
+    private AvailabilityChangeEvent<ReadinessState> ready() {
+        return new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC);
+    }
+
+    @Test
+    void testHasStage_walksNestedPlans() {
+        assertTrue(MongoIndexManager.hasStage(stage("LIMIT", stage("COLLSCAN", null)), "COLLSCAN"));
+        assertTrue(MongoIndexManager.hasStage(new Document("stage", "OR")
+                .append("inputStages", List.of(stage("IXSCAN", null), stage("COLLSCAN", null))), "COLLSCAN"));
+        assertTrue(MongoIndexManager.hasStage(new Document("queryPlan", stage("COLLSCAN", null)), "COLLSCAN"));
+        assertFalse(MongoIndexManager.hasStage(stage("FETCH", stage("IXSCAN", null)), "COLLSCAN"));
+        assertFalse(MongoIndexManager.hasStage(stage("EOF", null), "COLLSCAN"));
+    }
+
+    @Test
+    void testSameKeys_ignoresNumberTypeButNotOrder() {
+        Document declared = new Document("userId", 1).append("createdAt", -1);
+        assertTrue(MongoIndexManager.sameKeys(new Document("userId", 1.0).append("createdAt", -1L), declared));
+        assertFalse(MongoIndexManager.sameKeys(new Document("createdAt", -1).append("userId", 1), declared));
+        assertFalse(MongoIndexManager.sameKeys(new Document("userId", 1), declared));
+    }
+
+    @Test
+    void testRun_reportsCollectionScans() {
+        planAll(stage("COLLSCAN", null));
+        MongoIndexManager manager = new MongoIndexManager(mongoTemplate, publisher, "warn");
+
+        manager.run(null);
+
+        assertEquals(MongoIndexManager.PROBES.size(), manager.getCollectionScans().size());
+        assertTrue(manager.getCollectionScans().contains("OrderRepository.findByUserId"));
+    }
+
+    @Test
+    void testOnReadiness_failModeRefusesTrafficOnCollectionScan() {
+        planAll(stage("COLLSCAN", null));
+        MongoIndexManager manager = new MongoIndexManager(mongoTemplate, publisher, "fail");
+        manager.run(null);
+
+        manager.onReadiness(ready());
+
+        verify(publisher).publishEvent(argThat((ApplicationEvent event) -> event instanceof AvailabilityChangeEvent
+                && ((AvailabilityChangeEvent<?>) event).getState() == ReadinessState.REFUSING_TRAFFIC));
+    }
+
+    @Test
+    void testOnReadiness_warnModeOrIndexedQueriesKeepTraffic() {
+        planAll(stage("COLLSCAN", null));
+        MongoIndexManager warn = new MongoIndexManager(mongoTemplate, publisher, "warn");
+        warn.run(null);
+        warn.onReadiness(ready());
+
+        planAll(stage("FETCH", stage("IXSCAN", null)));
+        MongoIndexManager indexed = new MongoIndexManager(mongoTemplate, publisher, "fail");
+        indexed.run(null);
+        indexed.onReadiness(ready());
+
+        assertTrue(indexed.getCollectionScans().isEmpty());
+        verifyNoInteractions(publisher);
+    }
+}
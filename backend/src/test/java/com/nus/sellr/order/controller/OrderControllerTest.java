@@ -1,5 +1,6 @@
 package com.nus.sellr.order.controller;
 
+import com.nus.sellr.common.dto.CursorPage;
 import com.nus.sellr.order.dto.*;
 import com.nus.sellr.order.entity.OrderStatus;
 import com.nus.sellr.order.service.OrderService;
@@ -237,6 +238,14 @@ class OrderControllerTest {
         verify(orderService, times(1)).getAllOrders();
     }
 
+    @Test
+    void testGetAllOrdersPage_passesCursorThrough() {
+        CursorPage<OrderResponseDTO> page = new CursorPage<>(List.of(new OrderResponseDTO()), "next", 20, null);
+        when(orderService.getAllOrders("cursor", 20)).thenReturn(page);
+
+        assertSame(page, orderController.getAllOrdersPage("cursor", 20));
+    }
+
     // ----------------- resolveDispute -----------------
     @Test
     void testResolveDispute_success() {
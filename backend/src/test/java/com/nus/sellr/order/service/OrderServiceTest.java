@@ -1,6 +1,7 @@
 package com.nus.sellr.order.service;
 
 import com.nus.sellr.cart.service.CartService;
+import com.nus.sellr.common.dto.CursorPage;
 import com.nus.sellr.order.dto.*;
 import com.nus.sellr.order.entity.Order;
 import com.nus.sellr.order.entity.OrderItem;
@@ -9,16 +10,16 @@ import com.nus.sellr.order.entity.PaymentDetails;
 import com.nus.sellr.order.payment.PaymentStrategy;
 import com.nus.sellr.order.payment.PaymentStrategyFactory;
 import com.nus.sellr.order.repository.OrderRepository;
-import com.nus.sellr.product.dto.ProductResponse;
 import com.nus.sellr.product.entity.Product;
 import com.nus.sellr.product.service.ProductService;
-import com.nus.sellr.user.entity.Seller;
-import com.nus.sellr.user.repository.SellerRepository;
+import com.nus.sellr.user.cache.SellerDirectory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -47,7 +48,10 @@ class OrderServiceTest {
     @InjectMocks
     private OrderService orderService; // Injects all mocks into constructor
     @Mock
-    private SellerRepository sellerRepository;
+    private SellerDirectory sellerDirectory;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
 
     @BeforeEach
     void setUp() {
@@ -79,7 +83,9 @@ class OrderServiceTest {
 
         assertNotNull(response);
         verify(cartService, times(1)).clearCart("user1");
-        verify(productService, times(1)).saveProduct(any());
+        verify(productService, times(1)).decrementStock("prod1", 2);
+        verify(productService, never()).saveProduct(any());
+        verify(productService, times(1)).recordSale(eq("prod1"), anyInt());
     }
 
     @Test
@@ -206,14 +212,8 @@ class OrderServiceTest {
         when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
 
         // Mock ProductService
-        Product product = new Product();
-        product.setStock(10);
-        when(productService.getProductEntityById("prod1")).thenReturn(product);
-        when(productService.getProductById("prod1")).thenReturn(
-                new com.nus.sellr.product.dto.ProductResponse(
-                        "prod1", "Product 1", "Desc", 100, "url", "Category", 10, "seller1"
-                )
-        );
+        when(productService.getProductsByIds(anyCollection()))
+                .thenReturn(Map.of("prod1", product("prod1", "Product 1")));
     }
 
     @Test
@@ -276,17 +276,11 @@ class OrderServiceTest {
         when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
 
         // ------------------ Mock product service ------------------
-        when(productService.getProductById("prod1"))
-                .thenReturn(new ProductResponse(
-                        "prod1", "Product 1", "Some description", 100.0,
-                        "url", "Category A", 10, "seller1"
-                ));
-
-        // ------------------ Mock seller repository ------------------
-        Seller mockSeller = new Seller();
-        mockSeller.setId("seller1");
-        mockSeller.setUsername("Seller One");
-        when(sellerRepository.findById("seller1")).thenReturn(Optional.of(mockSeller));
+        when(productService.getProductsByIds(anyCollection()))
+                .thenReturn(Map.of("prod1", product("prod1", "Product 1")));
+
+        // ------------------ Mock seller directory ------------------
+        when(sellerDirectory.getUsernames(anyCollection())).thenReturn(Map.of("seller1", "Seller One"));
 
         // ------------------ Call service ------------------
         OrderResponseDTO response = orderService.createOrder(dto);
@@ -349,13 +343,18 @@ class OrderServiceTest {
         return order;
     }
 
+    private Product product(String id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setImageUrl("url");
+        return product;
+    }
+
     // Helper to mock productService
     private void mockProductService(String productId) {
-        when(productService.getProductById(productId))
-                .thenReturn(new ProductResponse(
-                        productId, "Product 1", "Some description", 100.0,
-                        "url", "Category A", 10, "seller1"
-                ));
+        when(productService.getProductsByIds(anyCollection()))
+                .thenReturn(Map.of(productId, product(productId, "Product 1")));
     }
 
     @Test
@@ -367,23 +366,72 @@ class OrderServiceTest {
         List<OrderResponseDTO> responses = orderService.getOrdersByUserId("user1");
 
         assertEquals(1, responses.size());
-        assertEquals(OrderStatus.INCOMPLETE, order.getOverallStatus());
+        assertEquals(OrderStatus.INCOMPLETE, responses.get(0).getOverallStatus());
 
-        verify(orderRepository, never()).save(order); // incomplete orders not saved
+        verify(orderRepository, never()).save(order); // reads never write
     }
 
     @Test
     void testGetOrdersByUserId_completedStatus() {
         Order order = createOrderWithItem("user1", "prod1", OrderStatus.DELIVERED);
+        order.setOverallStatus(OrderStatus.DELIVERED); // stored when the item was delivered
+        order.setItemStatusCounts(new EnumMap<>(Map.of(OrderStatus.DELIVERED, 1)));
         when(orderRepository.findByUserId("user1")).thenReturn(Collections.singletonList(order));
         mockProductService("prod1");
 
         List<OrderResponseDTO> responses = orderService.getOrdersByUserId("user1");
 
         assertEquals(1, responses.size());
-        assertEquals(OrderStatus.COMPLETED, order.getOverallStatus());
+        assertEquals(OrderStatus.COMPLETED, responses.get(0).getOverallStatus());
+
+        verify(orderRepository, never()).save(any()); // reads never write
+    }
+
+    @Test
+    void testGetOrdersByUserId_legacyOrdersUseItemsNotStaleStoredStatus() {
+        // seller delivered everything before status was kept on write: stored status is still SHIPPED
+        Order delivered = createOrder("user1", "order1", Arrays.asList(
+                createOrderItem("prod1", "seller1"), createOrderItem("prod1", "seller1")));
+        delivered.getItems().forEach(item -> item.setStatus(OrderStatus.DELIVERED));
+        delivered.setOverallStatus(OrderStatus.SHIPPED);
+        // delivered and then disputed: stored status is still DELIVERED
+        Order disputed = createOrderWithItem("user1", "prod1", OrderStatus.DISPUTING);
+        disputed.setOverallStatus(OrderStatus.DELIVERED);
+        when(orderRepository.findByUserId("user1")).thenReturn(Arrays.asList(delivered, disputed));
+        mockProductService("prod1");
+
+        List<OrderResponseDTO> responses = orderService.getOrdersByUserId("user1");
+
+        assertEquals(OrderStatus.COMPLETED, responses.get(0).getOverallStatus());
+        assertEquals(OrderStatus.INCOMPLETE, responses.get(1).getOverallStatus());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void testItemStatusChanges_maintainCountsAndStoredStatus() {
+        Order order = createOrder("user1", "order123", Arrays.asList(
+                createOrderItem("prod1", "seller1"), createOrderItem("prod2", "seller1")));
+        order.getItems().forEach(item -> item.setStatus(OrderStatus.PENDING));
+        order.setOverallStatus(OrderStatus.PENDING);
+        when(orderRepository.findById("order123")).thenReturn(Optional.of(order));
+
+        orderService.updateOrderItemStatusAsSeller("order123", "prod1", "seller1", OrderStatus.SHIPPED, null);
+        assertEquals(Map.of(OrderStatus.PENDING, 1, OrderStatus.SHIPPED, 1), order.getItemStatusCounts());
+        assertEquals(OrderStatus.PENDING, order.getOverallStatus());
+
+        orderService.updateOrderItemStatusAsSeller("order123", "prod2", "seller1", OrderStatus.SHIPPED, null);
+        assertEquals(OrderStatus.SHIPPED, order.getOverallStatus());
+
+        orderService.updateOrderItemStatusAsBuyer("order123", "prod1", OrderStatus.DELIVERED);
+        orderService.raiseDispute("order123", "prod2", "Damaged", "Box was crushed");
+        assertEquals(Map.of(OrderStatus.DELIVERED, 1, OrderStatus.DISPUTING, 1), order.getItemStatusCounts());
+        assertEquals(OrderStatus.SHIPPED, order.getOverallStatus());
+        assertEquals(OrderStatus.INCOMPLETE, OrderService.buyerStatus(order.getItemStatusCounts()));
 
-        verify(orderRepository, times(1)).save(order); // COMPLETED orders saved
+        orderService.resolveDispute("order123", "prod2");
+        assertEquals(Map.of(OrderStatus.DELIVERED, 1, OrderStatus.RESOLVED, 1), order.getItemStatusCounts());
+        assertEquals(OrderStatus.COMPLETED, order.getOverallStatus());
+        assertEquals(OrderStatus.COMPLETED, OrderService.buyerStatus(order.getItemStatusCounts()));
     }
 
 
@@ -407,8 +455,9 @@ class OrderServiceTest {
         assertEquals(OrderStatus.DELIVERED, item.getStatus());
         assertNotNull(item.getDeliveryDate());
 
-        // Verify overall order status updated
+        // Verify overall order status updated (and item counts initialised for an order that had none)
         assertEquals(OrderStatus.DELIVERED, order.getOverallStatus());
+        assertEquals(Map.of(OrderStatus.DELIVERED, 1), order.getItemStatusCounts());
 
         verify(orderRepository, times(1)).save(order);
     }
@@ -429,6 +478,73 @@ class OrderServiceTest {
         return order;
     }
 
+    @Test
+    void testGetOrdersByUserId_resolvesProductsAndSellersOncePerResultSet() {
+        Order first = createOrder("user1", "order1", Arrays.asList(
+                createOrderItem("prod1", "seller1"), createOrderItem("prod2", "seller2")));
+        Order second = createOrder("user1", "order2", Arrays.asList(
+                createOrderItem("prod1", "seller1"), createOrderItem("prod3", "seller1")));
+        when(orderRepository.findByUserId("user1")).thenReturn(Arrays.asList(first, second));
+        when(productService.getProductsByIds(anyCollection())).thenReturn(Map.of(
+                "prod1", product("prod1", "Product 1"),
+                "prod2", product("prod2", "Product 2"),
+                "prod3", product("prod3", "Product 3")));
+        when(sellerDirectory.getUsernames(anyCollection()))
+                .thenReturn(Map.of("seller1", "Seller One", "seller2", "Seller Two"));
+
+        List<OrderResponseDTO> responses = orderService.getOrdersByUserId("user1");
+
+        assertEquals(2, responses.size());
+        assertEquals("Product 2", responses.get(0).getItems().get(1).getProductName());
+        assertEquals("Seller Two", responses.get(0).getItems().get(1).getSellerName());
+        assertEquals("Seller One", responses.get(1).getItems().get(1).getSellerName());
+        verify(productService, times(1)).getProductsByIds(Set.of("prod1", "prod2", "prod3"));
+        verify(sellerDirectory, times(1)).getUsernames(Set.of("seller1", "seller2"));
+        verify(productService, never()).getProductById(anyString());
+        verify(sellerDirectory, never()).getUsername(anyString());
+    }
+
+    @Test
+    void testGetOrdersByUserIdPage_returnsCursorForNextPage() {
+        Order newest = createOrder("user1", "650000000000000000000003", List.of(createOrderItem("prod1", "seller1")));
+        Order middle = createOrder("user1", "650000000000000000000002", List.of(createOrderItem("prod1", "seller1")));
+        Order extra = createOrder("user1", "650000000000000000000001", List.of(createOrderItem("prod1", "seller1")));
+        middle.setCreatedAt(LocalDateTime.of(2024, 5, 1, 12, 0));
+        when(mongoTemplate.find(any(Query.class), eq(Order.class))).thenReturn(Arrays.asList(newest, middle, extra));
+        mockProductService("prod1");
+
+        CursorPage<OrderResponseDTO> page = orderService.getOrdersByUserId("user1", null, 2);
+
+        assertEquals(2, page.getContent().size());
+        assertEquals("650000000000000000000002", page.getContent().get(1).getOrderId());
+        assertTrue(page.isHasNext());
+
+        // The cursor resumes strictly after the last order shown, in (createdAt, _id) order
+        Query next = new Query().addCriteria(OrderCursor.decode(page.getNextCursor()).toCriteria());
+        assertTrue(next.getQueryObject().toJson().contains("650000000000000000000002"));
+        verify(mongoTemplate).find(argThat((Query q) -> q.getLimit() == 3
+                && q.getQueryObject().get("userId").equals("user1")), eq(Order.class));
+    }
+
+    @Test
+    void testGetAllOrdersPage_lastPageHasNoCursor() {
+        when(mongoTemplate.find(any(Query.class), eq(Order.class)))
+                .thenReturn(List.of(createOrder("user1", "650000000000000000000001", List.of())));
+
+        CursorPage<OrderResponseDTO> page = orderService.getAllOrders(null, 20);
+
+        assertEquals(1, page.getContent().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testOrderPages_rejectBadSizeAndCursor() {
+        assertThrows(IllegalArgumentException.class, () -> orderService.getAllOrders(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> orderService.getOrdersForSeller("seller1", null, 101));
+        assertThrows(IllegalArgumentException.class, () -> orderService.getOrdersByUserId("user1", "not-a-cursor", 20));
+        verifyNoInteractions(mongoTemplate);
+    }
+
     @Test
     void testGetOrdersForSeller_normalFlow() {
         // Prepare items and order
@@ -439,9 +555,8 @@ class OrderServiceTest {
         when(orderRepository.findOrdersBySellerId("seller1")).thenReturn(Collections.singletonList(order));
 
         // Mock productService for toResponseDTO
-        when(productService.getProductById("prod1")).thenReturn(
-                new ProductResponse("prod1", "Product 1", "Desc", 100, "url", "Category A", 10, "seller1")
-        );
+        when(productService.getProductsByIds(anyCollection()))
+                .thenReturn(Map.of("prod1", product("prod1", "Product 1")));
 
         List<OrderResponseDTO> results = orderService.getOrdersForSeller("seller1");
 
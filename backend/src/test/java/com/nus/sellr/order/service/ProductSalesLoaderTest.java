@@ -0,0 +1,43 @@
+package com.nus.sellr.order.service;
+
+import com.nus.sellr.order.entity.Order;
+import com.nus.sellr.product.search.ProductPopularity;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+class ProductSalesLoaderTest {
+
+    @Test
+    void testLoad_sumsOrderItemsIntoPopularity() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        ProductPopularity popularity = mock(ProductPopularity.class);
+        AggregationResults<Document> results = new AggregationResults<>(List.of(
+                new Document("_id", "p1").append("sold", 4),
+                new Document("_id", null).append("sold", 2)), new Document());
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Order.class), eq(Document.class))).thenReturn(results);
+
+        new ProductSalesLoader(mongoTemplate, popularity).load();
+
+        verify(popularity).load(Map.of("p1", 4L));
+    }
+
+    @Test
+    void testLoad_mongoFailureLeavesPopularityEmpty() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        ProductPopularity popularity = mock(ProductPopularity.class);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Order.class), eq(Document.class)))
+                .thenThrow(new IllegalStateException("down"));
+
+        new ProductSalesLoader(mongoTemplate, popularity).load();
+
+        verify(popularity, never()).load(any());
+    }
+}
@@ -0,0 +1,135 @@
+package com.nus.sellr.product.cache;
+
+import com.nus.sellr.product.dto.ProductCacheStats;
+import com.nus.sellr.product.entity.Product;
+import com.nus.sellr.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductCacheTest {
+
+    private ProductRepository productRepository;
+    private ProductCache productCache;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        productCache = new ProductCache(productRepository, 100, 300);
+    }
+
+    private Product product(String id, int stock) {
+        Product product = new Product("Phone", "desc", 100.0, "url", "cat", stock, "seller1");
+        product.setId(id);
+        return product;
+    }
+
+    @Test
+    void testGet_readsThroughOnceThenHits() {
+        when(productRepository.findById("p1")).thenReturn(Optional.of(product("p1", 5)));
+
+        assertTrue(productCache.get("p1").isPresent());
+        assertTrue(productCache.get("p1").isPresent());
+
+        verify(productRepository, times(1)).findById("p1");
+        ProductCacheStats stats = productCache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void testGet_returnsCopiesSoCallersCannotCorruptCache() {
+        when(productRepository.findById("p1")).thenReturn(Optional.of(product("p1", 5)));
+
+        productCache.get("p1").get().setStock(0);
+
+        assertEquals(5, productCache.get("p1").get().getStock());
+    }
+
+    @Test
+    void testGet_missingProductIsNotCached() {
+        when(productRepository.findById("nope")).thenReturn(Optional.empty());
+
+        assertFalse(productCache.get("nope").isPresent());
+        assertFalse(productCache.get("nope").isPresent());
+
+        verify(productRepository, times(2)).findById("nope");
+    }
+
+    @Test
+    void testInvalidate_forcesReload() {
+        when(productRepository.findById("p1"))
+                .thenReturn(Optional.of(product("p1", 5)))
+                .thenReturn(Optional.of(product("p1", 2)));
+
+        productCache.get("p1");
+        productCache.invalidate("p1");
+
+        assertEquals(2, productCache.get("p1").get().getStock());
+    }
+
+    @Test
+    void testGet_concurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findById("p1")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(product("p1", 5));
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Optional<Product>>> results = new ArrayList<>();
+            results.add(pool.submit(() -> productCache.get("p1")));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(pool.submit(() -> productCache.get("p1")));
+            }
+            // give the waiters time to join the in-flight load before it completes
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<Optional<Product>> result : results) {
+                assertEquals("p1", result.get(5, TimeUnit.SECONDS).get().getId());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(productRepository, times(1)).findById("p1");
+        assertEquals(1, productCache.getStats().getLoads());
+    }
+
+    @Test
+    void testGetAll_fetchesOnlyMissesInOneQuery() {
+        when(productRepository.findById("p1")).thenReturn(Optional.of(product("p1", 5)));
+        when(productRepository.findAllById(List.of("p2", "p3"))).thenReturn(List.of(product("p2", 1)));
+        productCache.get("p1");
+
+        Map<String, Product> result = productCache.getAll(List.of("p1", "p2", "p3", "p2"));
+
+        assertEquals(2, result.size());
+        assertEquals(5, result.get("p1").getStock());
+        assertEquals(1, result.get("p2").getStock());
+        verify(productRepository, times(1)).findAllById(List.of("p2", "p3"));
+
+        // p2 is now cached; p3 is still unknown
+        when(productRepository.findAllById(List.of("p3"))).thenReturn(List.of());
+        productCache.getAll(List.of("p2", "p3"));
+        verify(productRepository, times(1)).findAllById(List.of("p3"));
+    }
+}
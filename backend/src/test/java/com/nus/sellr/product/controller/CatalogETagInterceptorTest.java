@@ -0,0 +1,94 @@
+package com.nus.sellr.product.controller;
+
+import com.nus.sellr.product.cache.CatalogVersion;
+import com.nus.sellr.product.event.ProductEventRelay;
+import com.nus.sellr.user.cache.SellerDirectory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogETagInterceptorTest {
+
+    private CatalogVersion catalogVersion;
+    private CatalogETagInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersion = new CatalogVersion();
+        interceptor = new CatalogETagInterceptor(catalogVersion, mock(SellerDirectory.class),
+                mock(ProductEventRelay.class), true);
+    }
+
+    private MockHttpServletResponse get(String ifNoneMatch, boolean[] proceed) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/p1");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        proceed[0] = interceptor.preHandle(request, response, null);
+        return response;
+    }
+
+    @Test
+    void testMatchingETag_answers304WithoutRunningTheHandler() {
+        boolean[] proceed = new boolean[1];
+        String etag = get(null, proceed).getHeader("ETag");
+        assertTrue(proceed[0]);
+
+        MockHttpServletResponse response = get(etag, proceed);
+
+        assertFalse(proceed[0]);
+        assertEquals(304, response.getStatus());
+        assertEquals("no-cache", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    void testCatalogChange_invalidatesETag() {
+        boolean[] proceed = new boolean[1];
+        String etag = get(null, proceed).getHeader("ETag");
+
+        catalogVersion.bump();
+        MockHttpServletResponse response = get(etag, proceed);
+
+        assertTrue(proceed[0]);
+        assertEquals(200, response.getStatus());
+        assertNotEquals(etag, response.getHeader("ETag"));
+    }
+
+    @Test
+    void testNdjsonRepresentation_getsItsOwnETag() {
+        MockHttpServletRequest json = new MockHttpServletRequest("GET", "/api/products");
+        MockHttpServletRequest ndjson = new MockHttpServletRequest("GET", "/api/products");
+        ndjson.addHeader("Accept", "application/x-ndjson");
+
+        assertNotEquals(interceptor.etag(json), interceptor.etag(ndjson));
+    }
+
+    @Test
+    void testWrites_passThroughUntagged() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/products");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, null));
+        assertNull(response.getHeader("ETag"));
+    }
+
+    @Test
+    void testLocalModeWithOtherInstances_issuesNoETag() {
+        ProductEventRelay relay = mock(ProductEventRelay.class);
+        when(relay.isEnabled()).thenReturn(false);
+        CatalogETagInterceptor local = new CatalogETagInterceptor(catalogVersion, mock(SellerDirectory.class),
+                relay, false);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/p1");
+        request.addHeader("If-None-Match", local.etag(request));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(local.preHandle(request, response, null));
+        assertNull(response.getHeader("ETag"));
+        assertEquals(200, response.getStatus());
+    }
+}
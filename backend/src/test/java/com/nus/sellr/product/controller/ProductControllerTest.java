@@ -1,18 +1,42 @@
 package com.nus.sellr.product.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nus.sellr.common.dto.CursorPage;
+import com.nus.sellr.product.dto.CategoryCount;
+import com.nus.sellr.product.dto.CategoryCountsResponse;
+import com.nus.sellr.product.dto.FacetedPage;
+import com.nus.sellr.product.dto.ProductBulkUpdateResult;
+import com.nus.sellr.product.dto.ProductCacheStats;
+import com.nus.sellr.product.dto.ProductImportResult;
+import com.nus.sellr.product.dto.ProductPatch;
 import com.nus.sellr.product.dto.ProductRequest;
 import com.nus.sellr.product.dto.ProductResponse;
+import com.nus.sellr.product.dto.ProductSuggestion;
+import com.nus.sellr.product.dto.ProductSummary;
+import com.nus.sellr.product.dto.SearchFacets;
+import com.nus.sellr.product.importer.ProductImporter;
+import com.nus.sellr.product.search.SearchCountMode;
+import com.nus.sellr.product.search.SearchResultCache;
 import com.nus.sellr.product.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,6 +46,15 @@ class ProductControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private ProductImporter productImporter;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private SearchResultCache searchResultCache = new SearchResultCache(100, 30, 1 << 20);
+
     @InjectMocks
     private ProductController productController;
 
@@ -66,6 +99,60 @@ class ProductControllerTest {
         verify(productService, times(1)).getAllProducts();
     }
 
+    @Test
+    void testStreamAllProducts_writesOneJsonObjectPerLine() throws Exception {
+        ProductResponse p1 = new ProductResponse();
+        p1.setId("prod1");
+        ProductResponse p2 = new ProductResponse();
+        p2.setId("prod2");
+        doAnswer(inv -> {
+            Consumer<ProductResponse> sink = inv.getArgument(0);
+            sink.accept(p1);
+            sink.accept(p2);
+            return null;
+        }).when(productService).streamAllProducts(any());
+
+        ProductController controller = new ProductController(productService, new ObjectMapper(), productImporter,
+                searchResultCache);
+        var result = controller.streamAllProducts();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        result.getBody().writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(MediaType.APPLICATION_NDJSON, result.getHeaders().getContentType());
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"id\":\"prod1\""));
+        assertTrue(lines[1].contains("\"id\":\"prod2\""));
+    }
+
+    @Test
+    void testImportProducts_routesByContentType() {
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        ProductImportResult report = new ProductImportResult();
+        when(productImporter.importNdjson(body, "seller1")).thenReturn(report);
+        when(productImporter.importCsv(body, "seller1")).thenReturn(report);
+
+        var ndjson = productController.importProducts("seller1", "application/x-ndjson", body);
+        var csv = productController.importProducts("seller1", "text/csv; charset=UTF-8", body);
+
+        assertSame(report, ndjson.getBody());
+        assertSame(report, csv.getBody());
+        verify(productImporter, times(1)).importNdjson(body, "seller1");
+        verify(productImporter, times(1)).importCsv(body, "seller1");
+    }
+
+    @Test
+    void testBulkUpdateProducts() {
+        List<ProductPatch> patches = List.of(new ProductPatch("prod1", 9.5, null, null, null));
+        ProductBulkUpdateResult report = new ProductBulkUpdateResult();
+        when(productService.bulkUpdate(patches)).thenReturn(report);
+
+        var result = productController.bulkUpdateProducts(patches);
+
+        assertEquals(200, result.getStatusCodeValue());
+        assertSame(report, result.getBody());
+    }
+
     @Test
     void testGetProductById() {
         ProductResponse response = new ProductResponse();
@@ -108,18 +195,58 @@ class ProductControllerTest {
     }
 
     @Test
-    void testSearchProducts() {
+    void testSearchProducts() throws Exception {
         ProductResponse p1 = new ProductResponse();
         p1.setId("prod1");
         Page<ProductResponse> page = new PageImpl<>(List.of(p1));
 
-        when(productService.search(any(), any(), any())).thenReturn(page);
+        when(productService.search(any(), any(), any(), any(), eq(false))).thenReturn(page);
 
-        var result = productController.searchProducts("query", "cat", 0, 10, "createdAt,desc");
+        var result = productController.searchProducts("query", "cat", 0, 10, "createdAt,desc", false, false, null, null);
 
         assertEquals(200, result.getStatusCodeValue());
-        assertEquals(1, result.getBody().getContent().size());
-        verify(productService, times(1)).search(any(), any(), any());
+        JsonNode body = objectMapper.readTree(result.getBody());
+        assertEquals(1, body.get("content").size());
+        assertEquals("prod1", body.get("content").get(0).get("id").asText());
+        verify(productService, times(1)).search(any(), any(), any(), any(), eq(false));
+    }
+
+    @Test
+    void testSearchProducts_repeatedQueryServedFromCache() {
+        when(productService.search(any(), any(), any(), any(), eq(false)))
+                .thenReturn(new PageImpl<>(List.of(new ProductResponse())));
+
+        var first = productController.searchProducts("Lamp", "home", 0, 10, "price,asc", false, false, null, null);
+        var second = productController.searchProducts(" lamp ", "home", 0, 10, "price,asc", false, false, null, null);
+        var otherPage = productController.searchProducts("lamp", "home", 1, 10, "price,asc", false, false, null, null);
+
+        assertArrayEquals(first.getBody(), second.getBody());
+        assertNotNull(otherPage.getBody());
+        verify(productService, times(2)).search(any(), any(), any(), any(), eq(false));
+    }
+
+    @Test
+    void testSearchProducts_rejectsInvertedPriceRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productController.searchProducts(null, null, 0, 10, "price,asc", false, false, 50.0, 10.0));
+        verify(productService, never()).search(any(), any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void testSearchProductsByCursor() {
+        ProductResponse p1 = new ProductResponse();
+        p1.setId("prod1");
+        CursorPage<ProductResponse> page = new CursorPage<>(List.of(p1), "next", 10, null);
+
+        when(productService.searchAfter(eq("query"), eq("cat"), any(), eq("abc"), eq(10), any()))
+                .thenReturn(page);
+
+        var result = productController.searchProductsByCursor("query", "cat", "abc", 10, "price,asc", true, true);
+
+        assertEquals(200, result.getStatusCodeValue());
+        assertEquals("next", result.getBody().getNextCursor());
+        verify(productService).searchAfter("query", "cat", Sort.Order.asc("price"), "abc", 10,
+                SearchCountMode.ESTIMATE);
     }
 
     @Test
@@ -134,6 +261,28 @@ class ProductControllerTest {
         verify(productService, times(1)).getProductsBySellerId("seller1");
     }
 
+    @Test
+    void testGetProductSummariesBySeller() {
+        CursorPage<ProductSummary> page = new CursorPage<>(List.of(new ProductSummary()), "next", 50, null);
+        when(productService.getProductSummariesBySellerId("seller1", null, 50)).thenReturn(page);
+
+        CursorPage<ProductSummary> result = productController.getProductSummariesBySeller("seller1", null, 50);
+
+        assertEquals("next", result.getNextCursor());
+    }
+
+    @Test
+    void testGetLowStockProducts() {
+        ProductResponse p1 = new ProductResponse();
+        p1.setId("prod1");
+        when(productService.getLowStockProducts("seller1")).thenReturn(List.of(p1));
+
+        List<ProductResponse> result = productController.getLowStockProducts("seller1");
+
+        assertEquals(1, result.size());
+        verify(productService, times(1)).getLowStockProducts("seller1");
+    }
+
     @Test
     void testGetCategories() {
         when(productService.getAllCategories()).thenReturn(List.of("cat1", "cat2"));
@@ -143,4 +292,46 @@ class ProductControllerTest {
         assertEquals(2, result.size());
         verify(productService, times(1)).getAllCategories();
     }
+
+    @Test
+    void testGetCategoryCounts() {
+        CategoryCountsResponse counts = new CategoryCountsResponse(3, List.of(new CategoryCount("cat1", 2)));
+        when(productService.getCategoryCounts()).thenReturn(counts);
+
+        CategoryCountsResponse result = productController.getCategoryCounts();
+
+        assertEquals(3, result.getVersion());
+        assertEquals(2, result.getCategories().get(0).getCount());
+    }
+
+    @Test
+    void testGetCacheStats() {
+        when(productService.getCacheStats()).thenReturn(new ProductCacheStats(3, 1, 1, 0, 1));
+
+        ProductCacheStats result = productController.getCacheStats();
+
+        assertEquals(0.75, result.getHitRatio());
+        assertEquals(0.25, result.getMissRatio());
+    }
+
+    @Test
+    void testSearchProducts_withFacets() throws Exception {
+        SearchFacets facets = new SearchFacets(List.of(new CategoryCount("cat", 1)), List.of());
+        FacetedPage<ProductResponse> page = new FacetedPage<>(new PageImpl<>(List.of(new ProductResponse())), facets);
+        when(productService.searchWithFacets(any(), any(), any(), any(), eq(true))).thenReturn(page);
+
+        var result = productController.searchProducts("query", null, 0, 10, "createdAt,desc", true, true, null, null);
+
+        JsonNode body = objectMapper.readTree(result.getBody());
+        assertEquals("cat", body.get("facets").get("categories").get(0).get("name").asText());
+        verify(productService, never()).search(any(), any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void testSuggest() {
+        List<ProductSuggestion> suggestions = List.of(new ProductSuggestion("iPhone", "product", "p1"));
+        when(productService.suggest("iph", 8)).thenReturn(suggestions);
+
+        assertEquals(suggestions, productController.suggest("iph", 8));
+    }
 }
@@ -0,0 +1,102 @@
+package com.nus.sellr.product.event;
+
+import com.nus.sellr.product.entity.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductEventBusTest {
+
+    private final List<List<ProductChangeEvent>> batches = Collections.synchronizedList(new ArrayList<>());
+    private ProductEventRelay relay;
+    private ProductEventBus bus;
+
+    @BeforeEach
+    void setUp() {
+        relay = mock(ProductEventRelay.class);
+        // a long delay keeps the background drain out of the way; tests deliver with flush()
+        bus = new ProductEventBus(List.of(batch -> batches.add(new ArrayList<>(batch))), relay, 60_000, 2);
+        bus.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bus.stop();
+    }
+
+    private Product product(String id, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setStock(stock);
+        return product;
+    }
+
+    @Test
+    void testFlush_coalescesPerIdAndSplitsIntoBatches() {
+        bus.publish(ProductChangeEvent.saved(product("p1", 10)));
+        bus.publish(ProductChangeEvent.saved(product("p2", 5)));
+        bus.publish(ProductChangeEvent.saved(product("p1", 9)));
+        bus.publish(ProductChangeEvent.deleted("p3"));
+
+        bus.flush();
+
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals("p2", batches.get(0).get(0).getProductId());
+        assertEquals("p1", batches.get(0).get(1).getProductId());
+        assertEquals(9, batches.get(0).get(1).getProduct().getStock());
+        assertEquals(ProductChangeEvent.Type.DELETED, batches.get(1).get(0).getType());
+        verify(relay, times(1)).publish(argThat(events -> events.size() == 3));
+    }
+
+    @Test
+    void testRemoteEvents_reachListenersButAreNotRelayedAgain() {
+        ArgumentCaptor<Consumer<List<ProductChangeEvent>>> sink = ArgumentCaptor.forClass(Consumer.class);
+        verify(relay).start(sink.capture());
+
+        sink.getValue().accept(List.of(ProductChangeEvent.remote(ProductChangeEvent.Type.SAVED, "p1")));
+        bus.flush();
+
+        assertEquals(1, batches.size());
+        assertTrue(batches.get(0).get(0).isRemote());
+        verify(relay).publish(List.of());
+    }
+
+    @Test
+    void testRemoteEventForPendingLocalId_localWriteIsStillRelayed() {
+        ArgumentCaptor<Consumer<List<ProductChangeEvent>>> sink = ArgumentCaptor.forClass(Consumer.class);
+        verify(relay).start(sink.capture());
+
+        bus.publish(ProductChangeEvent.saved(product("p1", 7)));
+        sink.getValue().accept(List.of(ProductChangeEvent.remote(ProductChangeEvent.Type.SAVED, "p1")));
+        bus.flush();
+
+        // listeners get the latest event (the remote one, which reloads), the relay still gets our write
+        assertEquals(1, batches.size());
+        assertTrue(batches.get(0).get(0).isRemote());
+        verify(relay).publish(argThat(events -> events.size() == 1 && !events.get(0).isRemote()
+                && events.get(0).getProduct().getStock() == 7));
+    }
+
+    @Test
+    void testPublish_deliversAsynchronously() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        ProductEventBus fast = new ProductEventBus(List.of(batch -> delivered.countDown()), relay, 0, 500);
+
+        fast.publish(ProductChangeEvent.deleted("p1"));
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        fast.stop();
+    }
+}
@@ -0,0 +1,113 @@
+package com.nus.sellr.product.event;
+
+import com.nus.sellr.product.cache.CatalogVersion;
+import com.nus.sellr.product.cache.ProductCache;
+import com.nus.sellr.product.entity.Product;
+import com.nus.sellr.product.repository.ProductRepository;
+import com.nus.sellr.product.search.LowStockIndex;
+import com.nus.sellr.product.search.ProductCategoryRegistry;
+import com.nus.sellr.product.search.ProductSearchIndex;
+import com.nus.sellr.product.search.ProductSuggester;
+import com.nus.sellr.product.search.SearchCountCache;
+import com.nus.sellr.product.search.SearchFacetCache;
+import com.nus.sellr.product.search.SearchResultCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+class ProductIndexUpdaterTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ProductCache productCache;
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+    @Mock
+    private SearchCountCache searchCountCache;
+    @Mock
+    private SearchFacetCache searchFacetCache;
+    @Mock
+    private ProductCategoryRegistry categoryRegistry;
+    @Mock
+    private ProductSuggester productSuggester;
+    @Mock
+    private CatalogVersion catalogVersion;
+    @Mock
+    private LowStockIndex lowStockIndex;
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @InjectMocks
+    private ProductIndexUpdater updater;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(categoryRegistry.isReady()).thenReturn(true);
+    }
+
+    private Product product(String id, String category) {
+        Product product = new Product();
+        product.setId(id);
+        product.setCategory(category);
+        return product;
+    }
+
+    @Test
+    void testSavedSnapshot_updatesIndexAndOldAndNewCategoryCounts() {
+        Product moved = product("p1", "New");
+        when(categoryRegistry.getCategoryOf("p1")).thenReturn("Old");
+
+        updater.onProductChanges(List.of(ProductChangeEvent.saved(moved)));
+
+        verify(productCache).invalidate("p1");
+        verify(productSearchIndex).index(argThat(p -> "p1".equals(p.getId())));
+        verify(categoryRegistry).onSaved(argThat(p -> "New".equals(p.getCategory())));
+        verify(productSuggester).index(any(Product.class));
+        verify(lowStockIndex).onSaved(argThat(p -> "p1".equals(p.getId())));
+        verify(searchCountCache).invalidateCategory("Old");
+        verify(searchCountCache).invalidateCategory("New");
+        verify(searchResultCache).invalidateCategory("Old");
+        verify(searchResultCache).invalidateCategory("New");
+        verify(searchFacetCache, times(1)).clear();
+        verify(catalogVersion, times(1)).bump();
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void testRemoteEvents_reloadedInOneQueryAndMissingOnesRemoved() {
+        Product fresh = product("p1", "home");
+        when(productRepository.findAllById(List.of("p1", "p2"))).thenReturn(List.of(fresh));
+
+        updater.onProductChanges(List.of(
+                ProductChangeEvent.remote(ProductChangeEvent.Type.SAVED, "p1"),
+                ProductChangeEvent.remote(ProductChangeEvent.Type.SAVED, "p2"),
+                ProductChangeEvent.remote(ProductChangeEvent.Type.DELETED, "p3")));
+
+        verify(productRepository, times(1)).findAllById(any());
+        verify(productSearchIndex).index(fresh);
+        verify(productSearchIndex).remove("p2");
+        verify(productSearchIndex).remove("p3");
+        verify(productSuggester).remove("p3");
+        verify(categoryRegistry).onDeleted("p3");
+        verify(searchFacetCache, times(1)).clear();
+    }
+
+    @Test
+    void testRegistryNotReady_dropsEveryCachedCount() {
+        when(categoryRegistry.isReady()).thenReturn(false);
+
+        updater.onProductChanges(List.of(ProductChangeEvent.deleted("p1")));
+
+        verify(searchCountCache).clear();
+        verify(searchResultCache).clear();
+        verify(searchCountCache, never()).invalidateCategory(any());
+    }
+}
@@ -0,0 +1,171 @@
+package com.nus.sellr.product.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.nus.sellr.product.dto.ProductImportResult;
+import com.nus.sellr.product.entity.Product;
+import com.nus.sellr.product.mapper.ProductMapper;
+import com.nus.sellr.product.service.ProductService;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductImporterTest {
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulkOps;
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulkOps = mock(BulkOperations.class);
+        productService = mock(ProductService.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)).thenReturn(bulkOps);
+        when(bulkOps.insert(anyList())).thenReturn(bulkOps);
+    }
+
+    private ProductImporter importer(int batchSize, int maxErrors) {
+        return new ProductImporter(mongoTemplate, new ProductMapper(), productService, new ObjectMapper(),
+                batchSize, maxErrors);
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testImportNdjson_insertsValidRowsInBatchesAndReportsBadOnes() {
+        String ndjson = "{\"name\":\"Lamp\",\"price\":25,\"stock\":3,\"category\":\"home\"}\n"
+                + "\n"
+                + "{\"name\":\"Mug\",\"price\":8}\n"
+                + "{not json\n"
+                + "{\"name\":\"\",\"price\":5}\n";
+
+        ProductImportResult result = importer(1, 100).importNdjson(body(ndjson), "seller1");
+
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(3, result.getErrors().get(0).getRow());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Invalid JSON"));
+        assertEquals("name is required", result.getErrors().get(1).getMessage());
+
+        ArgumentCaptor<List<Product>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productService, times(2)).onProductsImported(saved.capture());
+        Product lamp = saved.getAllValues().get(0).get(0);
+        assertEquals("Lamp", lamp.getName());
+        assertEquals("seller1", lamp.getSellerId());
+        assertNotNull(lamp.getId());
+        verify(bulkOps, times(2)).execute();
+    }
+
+    @Test
+    void testImportCsv_parsesQuotedFieldsAndCapsErrorList() {
+        String csv = "name,price,stock,description,ignored\r\n"
+                + "\"Desk Lamp, LED\",25.5,4,\"Warm light\nwith \"\"dimmer\"\"\",x\r\n"
+                + "Mug,cheap,1,,\r\n"
+                + "Chair,-1,1,,\r\n";
+
+        ProductImportResult result = importer(500, 1).importCsv(body(csv), "seller1");
+
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertTrue(result.isErrorsTruncated());
+
+        ArgumentCaptor<List<Product>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productService).onProductsImported(saved.capture());
+        Product lamp = saved.getValue().get(0);
+        assertEquals("Desk Lamp, LED", lamp.getName());
+        assertEquals("Warm light\nwith \"dimmer\"", lamp.getDescription());
+        assertEquals(25.5, lamp.getPrice());
+        assertEquals(4, lamp.getStock());
+    }
+
+    @Test
+    void testImportCsv_requiresNameColumn() {
+        assertThrows(IllegalArgumentException.class, () -> importer(500, 10).importCsv(body("title,price\n"), "s"));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void testImport_bulkWriteErrorsFailOnlyTheirRows() {
+        BulkOperationException failure = mock(BulkOperationException.class);
+        when(failure.getErrors()).thenReturn(List.of(
+                new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1)));
+        doThrow(failure).when(bulkOps).execute();
+
+        ProductImportResult result = importer(500, 10)
+                .importNdjson(body("{\"name\":\"A\"}\n{\"name\":\"B\"}\n{\"name\":\"C\"}\n"), "seller1");
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getRow());
+
+        ArgumentCaptor<List<Product>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productService).onProductsImported(saved.capture());
+        assertEquals(List.of("A", "C"), List.of(saved.getValue().get(0).getName(), saved.getValue().get(1).getName()));
+    }
+
+    @Test
+    void testImportCsv_brokenRecordStopsImportButReportsWhatWasWritten() {
+        String csv = "name,price\n"
+                + "Lamp,25\n"
+                + "Mug,8\n"
+                + "\"Chair,30\n"       // quote never closed: the rest of the upload cannot be parsed
+                + "Table,99\n";
+
+        ProductImportResult result = importer(1, 10).importCsv(body(csv), "seller1");
+
+        assertEquals(2, result.getImported());
+        assertEquals(3L, result.getAbortedAtRow());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Import stopped"));
+        verify(productService, times(2)).onProductsImported(anyList());
+    }
+
+    @Test
+    void testImportNdjson_overlongLineIsSkippedWithoutBufferingIt() {
+        String huge = "{\"name\":\"" + "x".repeat(70 * 1024) + "\"}";
+        String ndjson = "{\"name\":\"Lamp\"}\n" + huge + "\r\n{\"name\":\"Mug\"}\n";
+
+        ProductImportResult result = importer(500, 10).importNdjson(body(ndjson), "seller1");
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertTrue(result.getErrors().get(0).getMessage().contains("exceeds"));
+        assertNull(result.getAbortedAtRow());
+    }
+
+    @Test
+    void testImportNdjson_readFailureFlushesRowsReadSoFar() {
+        InputStream failing = new SequenceInputStream(body("{\"name\":\"Lamp\"}\n{\"name\":\"Mug\"}\n"),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("Connection reset");
+                    }
+                });
+
+        ProductImportResult result = importer(500, 10).importNdjson(failing, "seller1");
+
+        assertEquals(2, result.getImported());
+        assertEquals(3L, result.getAbortedAtRow());
+        assertEquals("Import stopped: Connection reset", result.getErrors().get(0).getMessage());
+    }
+}
@@ -2,6 +2,7 @@ package com.nus.sellr.product.mapper;
 
 import com.nus.sellr.product.dto.ProductRequest;
 import com.nus.sellr.product.dto.ProductResponse;
+import com.nus.sellr.product.dto.ProductSummary;
 import com.nus.sellr.product.entity.Product;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -50,6 +51,22 @@ class ProductMapperTest {
         assertNull(mapper.toResponse(null));
     }
 
+    @Test
+    void testToSummary_leavesOutDescription() {
+        Product product = new Product();
+        product.setId("p1");
+        product.setName("Product 1");
+        product.setPrice(5.0);
+        product.setStock(25);
+
+        ProductSummary dto = mapper.toSummary(product);
+
+        assertEquals("p1", dto.getId());
+        assertEquals("Product 1", dto.getName());
+        assertEquals(5.0, dto.getPrice());
+        assertFalse(dto.isLowStock());
+    }
+
     @Test
     void testToResponseList_mapsAllItems() {
         Product product1 = new Product();
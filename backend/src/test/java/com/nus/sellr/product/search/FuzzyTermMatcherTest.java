@@ -0,0 +1,54 @@
+package com.nus.sellr.product.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzyTermMatcherTest {
+
+    @Test
+    void testWithinDistance_countsAdjacentSwapAsOneEdit() {
+        assertTrue(FuzzyTermMatcher.withinDistance("iphnoe", "iphone", 1));
+        assertTrue(FuzzyTermMatcher.withinDistance("lamp", "lmp", 1));
+        assertFalse(FuzzyTermMatcher.withinDistance("lamp", "desk", 2));
+        assertFalse(FuzzyTermMatcher.withinDistance("phone", "phonecase", 2));
+    }
+
+    @Test
+    void testMatches_allowedEditsGrowWithTokenLength() {
+        FuzzyTermMatcher matcher = new FuzzyTermMatcher(100);
+        matcher.addTerm("tv");
+        matcher.addTerm("lamp");
+        matcher.addTerm("iphone");
+
+        assertEquals(List.of(), matcher.matches("tx"));
+        assertEquals(List.of("lamp"), matcher.matches("lamb"));
+        assertEquals(List.of("iphone"), matcher.matches("ipohen"));
+
+        matcher.removeTerm("lamp");
+        assertEquals(List.of(), matcher.matches("lamb"));
+    }
+
+    @Test
+    void testMatches_swapInShortTokenStillMatches() {
+        FuzzyTermMatcher matcher = new FuzzyTermMatcher(100);
+        matcher.addTerm("lamp");
+
+        // "lmap" shares only "$$l" with "lamp": a swap breaks four trigrams, not three
+        assertEquals(List.of("lamp"), matcher.matches("lmap"));
+    }
+
+    @Test
+    void testMatches_commonTrigramsDoNotSeedCandidates() {
+        FuzzyTermMatcher matcher = new FuzzyTermMatcher(100, 2);
+        matcher.addTerm("lamp");
+        matcher.addTerm("lids");
+        matcher.addTerm("logs");
+        matcher.addTerm("lots");
+
+        // "$$l" is held by four terms, so only the rarer "$la" seeds; "lamp" is still found
+        assertEquals(List.of("lamp"), matcher.matches("lamb"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.nus.sellr.product.search;
+
+import com.nus.sellr.product.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LowStockIndexTest {
+
+    private LowStockIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        Iterator<Product> rows = List.of(
+                product("p1", "s1", 5), product("p2", "s1", 2), product("p3", "s2", 0)).iterator();
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenReturn(new CloseableIterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Product next() {
+                return rows.next();
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        index = new LowStockIndex(mongoTemplate);
+        index.rebuild();
+    }
+
+    private Product product(String id, String sellerId, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setSellerId(sellerId);
+        product.setStock(stock);
+        return product;
+    }
+
+    private List<String> ids(String sellerId) {
+        return index.getLowStock(sellerId).stream().map(Product::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void testRebuild_groupsBySellerLowestStockFirst() {
+        assertTrue(index.isReady());
+        assertEquals(List.of("p2", "p1"), ids("s1"));
+        assertEquals(List.of("p3"), ids("s2"));
+        assertTrue(index.getLowStock("unknown").isEmpty());
+    }
+
+    @Test
+    void testOnSaved_restockRemovesAndDecrementAdds() {
+        index.onSaved(product("p1", "s1", 50));
+        index.onSaved(product("p4", "s1", 19));
+        index.onSaved(product("p5", "s1", 20));
+
+        assertEquals(List.of("p2", "p4"), ids("s1"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testOnSaved_movesProductToNewSeller() {
+        index.onSaved(product("p3", "s1", 1));
+
+        assertEquals(List.of("p3", "p2", "p1"), ids("s1"));
+        assertTrue(index.getLowStock("s2").isEmpty());
+    }
+
+    @Test
+    void testOnDeleted_removesProduct() {
+        index.onDeleted("p2");
+        index.onDeleted("missing");
+
+        assertEquals(List.of("p1"), ids("s1"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.nus.sellr.product.search;
+
+import com.nus.sellr.product.dto.CategoryCountsResponse;
+import com.nus.sellr.product.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductCategoryRegistryTest {
+
+    private ProductCategoryRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        Iterator<Product> rows = List.of(
+                product("p1", "books"), product("p2", "toys"), product("p3", "books")).iterator();
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenReturn(new CloseableIterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Product next() {
+                return rows.next();
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        registry = new ProductCategoryRegistry(mongoTemplate);
+        registry.rebuild();
+    }
+
+    private Product product(String id, String category) {
+        Product product = new Product();
+        product.setId(id);
+        product.setCategory(category);
+        return product;
+    }
+
+    @Test
+    void testRebuild_countsPerCategory() {
+        CategoryCountsResponse counts = registry.getCounts();
+
+        assertTrue(registry.isReady());
+        assertEquals(List.of("books", "toys"), registry.getCategories());
+        assertEquals(2, counts.getCategories().get(0).getCount());
+    }
+
+    @Test
+    void testOnSaved_movesProductBetweenCategories() {
+        long version = registry.getVersion();
+
+        registry.onSaved(product("p2", "books"));
+
+        assertEquals(List.of("books"), registry.getCategories());
+        assertEquals(3, registry.getCounts().getCategories().get(0).getCount());
+        assertTrue(registry.getVersion() > version);
+    }
+
+    @Test
+    void testOnSaved_unchangedCategoryKeepsVersion() {
+        long version = registry.getVersion();
+
+        registry.onSaved(product("p1", "books"));
+
+        assertEquals(version, registry.getVersion());
+    }
+
+    @Test
+    void testOnDeleted_dropsEmptyCategory() {
+        registry.onDeleted("p2");
+        registry.onSaved(product("p4", "garden"));
+
+        assertEquals(List.of("books", "garden"), registry.getCategories());
+    }
+}
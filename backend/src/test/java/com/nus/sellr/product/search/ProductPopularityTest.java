@@ -0,0 +1,24 @@
+package com.nus.sellr.product.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductPopularityTest {
+
+    @Test
+    void testLoadThenRecordSale_accumulatesUnitsSold() {
+        ProductPopularity popularity = new ProductPopularity(2.0);
+
+        popularity.load(Map.of("p1", 4L));
+        popularity.recordSale("p1", 3);
+        popularity.recordSale("p2", 0);
+
+        assertEquals(7, popularity.getUnitsSold("p1"));
+        assertEquals(0, popularity.getUnitsSold("p2"));
+        assertEquals(2.0 * Math.log1p(7), popularity.boost("p1"));
+        assertEquals(0.0, popularity.boost("p2"));
+    }
+}
@@ -0,0 +1,188 @@
+package com.nus.sellr.product.search;
+
+import com.nus.sellr.product.dto.PriceBucket;
+import com.nus.sellr.product.dto.SearchFacets;
+import com.nus.sellr.product.entity.Product;
+import com.nus.sellr.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductSearchIndexTest {
+
+    private ProductRepository productRepository;
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.findAll()).thenReturn(List.of(
+                product("p1", "Apple iPhone 13", "Smart phone", "electronics", 999),
+                product("p2", "Desk Lamp", "LED lamp for study", "home", 25),
+                product("p3", "Phone Case", "Fits iPhone", "electronics", 15)
+        ));
+        index = new ProductSearchIndex(productRepository, noSnapshots(), "index", 100);
+        index.rebuild();
+    }
+
+    private static SearchIndexSnapshotStore noSnapshots() {
+        return new SearchIndexSnapshotStore("", 300, 120);
+    }
+
+    private Product product(String id, String name, String description, String category, double price) {
+        Product product = new Product(name, description, price, "url", category, 10, "seller1");
+        product.setId(id);
+        return product;
+    }
+
+    private List<String> ids(Page<Product> page) {
+        return page.map(Product::getId).getContent();
+    }
+
+    @Test
+    void testSearch_matchesNameAndDescriptionPrefixes() {
+        Page<Product> result = index.search("phon", null, PageRequest.of(0, 10, Sort.by("price")));
+
+        assertEquals(List.of("p3", "p1"), ids(result));
+        assertEquals(2, result.getTotalElements());
+    }
+
+    @Test
+    void testSearch_allTokensMustMatch() {
+        Page<Product> result = index.search("iphone case", null, PageRequest.of(0, 10));
+
+        assertEquals(List.of("p3"), ids(result));
+    }
+
+    @Test
+    void testSearch_filtersByCategoryAndPages() {
+        Page<Product> result = index.search(null, "electronics", PageRequest.of(1, 1, Sort.by("price")));
+
+        assertEquals(List.of("p1"), ids(result));
+        assertEquals(2, result.getTotalElements());
+    }
+
+    @Test
+    void testIndexAndRemove_keepPostingsCurrent() {
+        index.index(product("p2", "Floor Lamp", "Tall", "home", 80));
+        index.remove("p3");
+
+        assertTrue(index.search("desk", null, PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of("p2"), ids(index.search("floor", null, PageRequest.of(0, 10))));
+        assertEquals(List.of("p1"), ids(index.search("iphone", null, PageRequest.of(0, 10))));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testSupports_onlyIndexedSortFields() {
+        assertTrue(index.supports(Sort.by("createdAt").descending()));
+        assertFalse(index.supports(Sort.by("imageUrl")));
+    }
+
+    @Test
+    void testRegexEngine_neverReady() {
+        ProductSearchIndex disabled = new ProductSearchIndex(productRepository, noSnapshots(), "regex", 100);
+        disabled.rebuild();
+
+        assertFalse(disabled.isReady());
+        assertTrue(index.isReady());
+    }
+
+    @Test
+    void testSearchAfter_resumesFromCursor() {
+        Sort byPrice = Sort.by("price");
+        List<Product> first = index.searchAfter(null, null, byPrice, null, 2);
+        ProductSearchCursor cursor = ProductSearchCursor.after(first.get(1), Sort.Order.asc("price"));
+
+        List<Product> rest = index.searchAfter(null, null, byPrice, ProductSearchCursor.decode(cursor.encode()), 2);
+
+        assertEquals(List.of("p3", "p2"), List.of(first.get(0).getId(), first.get(1).getId()));
+        assertEquals(1, rest.size());
+        assertEquals("p1", rest.get(0).getId());
+        assertEquals(2, index.count("phone", null));
+    }
+
+    @Test
+    void testFacets_categoryCountsIgnoreCategoryFilterButBucketsDoNot() {
+        SearchFacets facets = index.facets("phone", "electronics", new double[] {0, 20, 100});
+
+        assertEquals("electronics", facets.getCategories().get(0).getName());
+        assertEquals(2, facets.getCategories().get(0).getCount());
+
+        List<PriceBucket> buckets = facets.getPriceBuckets();
+        assertEquals(3, buckets.size());
+        assertEquals(1, buckets.get(0).getCount());   // case at 15
+        assertEquals(0, buckets.get(1).getCount());
+        assertEquals(1, buckets.get(2).getCount());   // iPhone at 999, open-ended top bucket
+        assertNull(buckets.get(2).getTo());
+    }
+
+    @Test
+    void testFuzzySearch_toleratesTyposInNames() {
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("price"));
+
+        assertTrue(index.search("iphnoe", null, pageable).isEmpty());
+        assertEquals(List.of("p3", "p1"), ids(index.search("iphnoe", null, pageable, true)));
+        assertEquals(List.of("p2"), ids(index.search("dsek lmap", null, pageable, true)));
+        assertTrue(index.search("zzzzzz", null, pageable, true).isEmpty());
+    }
+
+    @Test
+    void testFuzzySearch_forgetsRemovedTerms() {
+        index.remove("p2");
+
+        assertTrue(index.search("lmap", null, PageRequest.of(0, 10), true).isEmpty());
+    }
+
+    @Test
+    void testSearchByRelevance_ranksByTextScoreThenPopularity() {
+        index.index(product("p4", "Lamp", "Bright lamp, the best lamp", "home", 40));
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "relevance"));
+
+        Page<Product> byText = index.searchByRelevance("lamp", null, PriceRange.ANY, pageable, false, id -> 0);
+        Page<Product> boosted = index.searchByRelevance("lamp", null, PriceRange.ANY, pageable, false,
+                id -> id.equals("p2") ? 10 : 0);
+
+        assertEquals(List.of("p4", "p2"), ids(byText));
+        assertEquals(List.of("p2", "p4"), ids(boosted));
+        assertTrue(ProductSearchIndex.isRelevance(pageable.getSort()));
+    }
+
+    @Test
+    void testSearchByRelevance_pagesThroughTopK() {
+        PageRequest secondPage = PageRequest.of(1, 1, Sort.by("relevance"));
+
+        Page<Product> result = index.searchByRelevance(null, null, PriceRange.ANY, secondPage, false,
+                id -> id.equals("p3") ? 2 : 1);
+
+        assertEquals(List.of("p1"), ids(result));
+        assertEquals(3, result.getTotalElements());
+    }
+
+    @Test
+    void testSearch_priceRangeIntersectsTextAndCategory() {
+        PageRequest byPrice = PageRequest.of(0, 10, Sort.by("price"));
+
+        assertEquals(List.of("p3", "p2"), ids(index.search(null, null, PriceRange.of(15.0, 25.0), byPrice, false)));
+        assertEquals(List.of("p3"), ids(index.search("phone", null, PriceRange.of(null, 100.0), byPrice, false)));
+        assertEquals(List.of("p1"), ids(index.search(null, "electronics", PriceRange.of(16.0, null), byPrice, false)));
+        assertTrue(index.search(null, null, PriceRange.of(30.0, 900.0), byPrice, false).isEmpty());
+    }
+
+    @Test
+    void testSearch_priceRangeFollowsPriceUpdates() {
+        index.index(product("p2", "Desk Lamp", "LED lamp for study", "home", 120));
+        index.remove("p3");
+
+        Page<Product> result = index.search(null, null, PriceRange.of(0.0, 200.0), PageRequest.of(0, 10), false);
+
+        assertEquals(List.of("p2"), ids(result));
+    }
+}
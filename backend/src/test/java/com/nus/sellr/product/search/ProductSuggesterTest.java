@@ -0,0 +1,70 @@
+package com.nus.sellr.product.search;
+
+import com.nus.sellr.product.dto.ProductSuggestion;
+import com.nus.sellr.product.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductSuggesterTest {
+
+    private ProductSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new ProductSuggester(mock(MongoTemplate.class), 10);
+        suggester.index(product("p1", "Apple iPhone 13", "electronics", 5));
+        suggester.index(product("p2", "iPhone Case", "accessories", 50));
+        suggester.index(product("p3", "Desk Lamp", "home", 7));
+    }
+
+    private Product product(String id, String name, String category, int stock) {
+        Product product = new Product(name, "desc", 10.0, "url", category, stock, "seller1");
+        product.setId(id);
+        return product;
+    }
+
+    private List<String> texts(List<ProductSuggestion> suggestions) {
+        return suggestions.stream().map(ProductSuggestion::getText).collect(Collectors.toList());
+    }
+
+    @Test
+    void testSuggest_matchesAnyWordRankedByStock() {
+        assertEquals(List.of("iPhone Case", "Apple iPhone 13"), texts(suggester.suggest("iph", 8)));
+        assertEquals(List.of("Apple iPhone 13"), texts(suggester.suggest("Apple  IP", 8)));
+        assertEquals(List.of("iPhone Case"), texts(suggester.suggest("iph", 1)));
+    }
+
+    @Test
+    void testSuggest_includesCategories() {
+        List<ProductSuggestion> result = suggester.suggest("elec", 8);
+
+        assertEquals(1, result.size());
+        assertEquals("category", result.get(0).getType());
+        assertNull(result.get(0).getProductId());
+    }
+
+    @Test
+    void testIndexAndRemove_keepSuggestionsCurrent() {
+        suggester.suggest("iph", 8);  // populate node caches before the writes
+
+        suggester.index(product("p2", "Phone Case", "accessories", 50));
+        suggester.remove("p1");
+
+        assertEquals(List.of(), texts(suggester.suggest("iph", 8)));
+        assertEquals(List.of("Phone Case"), texts(suggester.suggest("ph", 8)));
+        assertTrue(suggester.suggest("electronics", 8).isEmpty());
+    }
+
+    @Test
+    void testSuggest_blankPrefixReturnsNothing() {
+        assertTrue(suggester.suggest("  ", 8).isEmpty());
+        assertTrue(suggester.suggest("zzz", 8).isEmpty());
+    }
+}
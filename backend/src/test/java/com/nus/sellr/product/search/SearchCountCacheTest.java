@@ -0,0 +1,39 @@
+package com.nus.sellr.product.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchCountCacheTest {
+
+    private SearchCountCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SearchCountCache(10, 60, 10000);
+    }
+
+    @Test
+    void testInvalidateCategory_dropsThatCategoryAndAllCategories() {
+        cache.put("lamp", "home", new SearchCount(3, true), cache.generation());
+        cache.put("lamp", "toys", new SearchCount(2, true), cache.generation());
+        cache.put("lamp", null, new SearchCount(5, true), cache.generation());
+
+        cache.invalidateCategory("home");
+
+        assertNull(cache.get("lamp", "home"));
+        assertNull(cache.get("lamp", null));
+        assertEquals(2, cache.get("lamp", "toys").getValue());
+    }
+
+    @Test
+    void testPut_skippedWhenInvalidatedWhileCountRan() {
+        long before = cache.generation();
+        cache.invalidateCategory("home");   // a write lands while the count for "home" is running
+
+        cache.put("lamp", "home", new SearchCount(3, true), before);
+
+        assertNull(cache.get("lamp", "home"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.nus.sellr.product.search;
+
+import com.nus.sellr.product.entity.Product;
+import com.nus.sellr.product.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SearchIndexSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    private Product product(String id, String name, String category, double price) {
+        Product product = new Product(name, "description of " + name, price, "url", category, 10, "seller1");
+        product.setId(id);
+        product.setUpdatedAt(Instant.now().minusSeconds(3600));
+        return product;
+    }
+
+    private List<String> ids(ProductSearchIndex index, String q, String category, PriceRange price) {
+        return index.search(q, category, price, PageRequest.of(0, 10, Sort.by("price")), false)
+                .map(Product::getId).getContent();
+    }
+
+    private ProductSearchIndex savedIndex(SearchIndexSnapshotStore store) {
+        ProductRepository source = mock(ProductRepository.class);
+        when(source.findAll()).thenReturn(List.of(
+                product("p1", "Apple iPhone", "electronics", 999),
+                product("p2", "Desk Lamp", "home", 25),
+                product("p3", "Phone Case", "electronics", 15)));
+        ProductSearchIndex index = new ProductSearchIndex(source, store, "index", 100);
+        index.rebuild();
+        index.remove("p2");
+        index.writeSnapshot();
+        return index;
+    }
+
+    @Test
+    void testRestore_loadsSnapshotAndReplaysOnlyChanges() {
+        SearchIndexSnapshotStore store = new SearchIndexSnapshotStore(dir.resolve("index.bin").toString(), 300, 120);
+        savedIndex(store).stop();
+        assertTrue(Files.exists(dir.resolve("index.bin")));
+
+        Product renamed = product("p3", "Zebra Case", "electronics", 15);
+        renamed.setUpdatedAt(Instant.now());
+        ProductRepository repository = mock(ProductRepository.class);
+        when(repository.findByUpdatedAtGreaterThanEqual(any())).thenReturn(List.of(renamed));
+        when(repository.findAllIds()).thenReturn(List.of(product("p3", null, null, 0), product("p4", null, null, 0)));
+        when(repository.findAllById(Set.of("p4"))).thenReturn(List.of(product("p4", "Phone Stand", "home", 40)));
+
+        ProductSearchIndex restored = new ProductSearchIndex(repository, store, "index", 100);
+        restored.rebuild();
+
+        assertTrue(restored.isReady());
+        assertEquals(2, restored.size());
+        assertEquals(List.of("p3"), ids(restored, "zebra", null, PriceRange.ANY));
+        assertEquals(List.of("p4"), ids(restored, "phone", null, PriceRange.ANY));
+        assertEquals(List.of("p3"), ids(restored, null, "electronics", PriceRange.of(10.0, 20.0)));
+        verify(repository, never()).findAll();
+        restored.stop();
+    }
+
+    @Test
+    void testRestore_corruptSnapshotFallsBackToFullBuild() throws Exception {
+        Path file = dir.resolve("index.bin");
+        Files.write(file, new byte[]{1, 2, 3});
+        ProductRepository repository = mock(ProductRepository.class);
+        when(repository.findAll()).thenReturn(List.of(product("p1", "Apple iPhone", "electronics", 999)));
+
+        ProductSearchIndex index = new ProductSearchIndex(repository,
+                new SearchIndexSnapshotStore(file.toString(), 300, 120), "index", 100);
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(1, index.size());
+        verify(repository).findAll();
+        index.stop();
+    }
+
+    private static ByteBuffer written(SearchIndexSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        snapshot.writeTo(out);
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    @Test
+    void testRead_rejectsOrdinalsPastTheRestoredProducts() throws Exception {
+        List<Product> docs = new ArrayList<>(List.of(product("p1", "Lamp", "home", 25)));
+        int[] lengths = {1};
+        BitSet farCategory = new BitSet();
+        farCategory.set(5);
+
+        // a valid snapshot round-trips
+        assertEquals(1, SearchIndexSnapshot.read(written(new SearchIndexSnapshot(1L, docs, lengths, lengths,
+                new TreeMap<>(), new TreeMap<>(), Map.of("home", BitSet.valueOf(new long[]{1})),
+                new double[]{25}, new int[]{0}))).liveCount());
+        // a price pointing past the products, and a category bitmap wider than them, fall back to a rebuild
+        assertThrows(IOException.class, () -> SearchIndexSnapshot.read(written(new SearchIndexSnapshot(1L, docs,
+                lengths, lengths, new TreeMap<>(), new TreeMap<>(), Map.of(), new double[]{25}, new int[]{3}))));
+        assertThrows(IOException.class, () -> SearchIndexSnapshot.read(written(new SearchIndexSnapshot(1L, docs,
+                lengths, lengths, new TreeMap<>(), new TreeMap<>(), Map.of("home", farCategory),
+                new double[]{25}, new int[]{0}))));
+    }
+}
@@ -0,0 +1,63 @@
+package com.nus.sellr.product.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTest {
+
+    private SearchResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SearchResultCache(10, 30, 100);
+    }
+
+    private SearchResultCache.Key key(String q, String category, int page, boolean facets) {
+        return SearchResultCache.key(q, category, PriceRange.ANY, PageRequest.of(page, 20, Sort.by("price")),
+                false, facets);
+    }
+
+    @Test
+    void testKey_normalizesQueryButKeepsPageAndPriceApart() {
+        cache.put(key(" Lamp ", "home", 0, false), new byte[]{1}, cache.generation());
+
+        assertNotNull(cache.get(key("lamp", "home", 0, false)));
+        assertNull(cache.get(key("lamp", "home", 1, false)));
+        assertNull(cache.get(SearchResultCache.key("lamp", "home", PriceRange.of(10.0, null),
+                PageRequest.of(0, 20, Sort.by("price")), false, false)));
+    }
+
+    @Test
+    void testInvalidateCategory_dropsThatCategoryAllCategoriesAndFacetedPages() {
+        cache.put(key("lamp", "home", 0, false), new byte[]{1}, cache.generation());
+        cache.put(key("lamp", "toys", 0, false), new byte[]{2}, cache.generation());
+        cache.put(key("lamp", null, 0, false), new byte[]{3}, cache.generation());
+        cache.put(key("lamp", "toys", 0, true), new byte[]{4}, cache.generation());
+
+        cache.invalidateCategory("home");
+
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get(key("lamp", "toys", 0, false)));
+    }
+
+    @Test
+    void testPut_skipsOversizedBodies() {
+        cache.put(key("lamp", "home", 0, false), new byte[101], cache.generation());
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testPut_skippedWhenInvalidatedWhileSearchRan() {
+        long before = cache.generation();
+        cache.invalidateCategory("toys");   // a write lands while the search for "home" is running
+
+        cache.put(key("lamp", "home", 0, false), new byte[]{1}, before);
+
+        assertNull(cache.get(key("lamp", "home", 0, false)));
+    }
+}
@@ -1,25 +1,59 @@
 package com.nus.sellr.product.service;
 
+import com.mongodb.bulk.BulkWriteResult;
+import com.nus.sellr.common.dto.CursorPage;
+import com.nus.sellr.product.cache.ProductCache;
+import com.nus.sellr.product.dto.ProductBulkUpdateResult;
+import com.nus.sellr.product.dto.ProductPatch;
 import com.nus.sellr.product.dto.ProductRequest;
 import com.nus.sellr.product.dto.ProductResponse;
+import com.nus.sellr.product.dto.ProductSuggestion;
+import com.nus.sellr.product.dto.ProductSummary;
+import com.nus.sellr.product.dto.SearchFacets;
 import com.nus.sellr.product.entity.Product;
+import com.nus.sellr.product.event.ProductChangeEvent;
+import com.nus.sellr.product.event.ProductEventBus;
 import com.nus.sellr.product.mapper.ProductMapper;
 import com.nus.sellr.product.repository.ProductRepository;
-import com.nus.sellr.user.entity.Seller;
-import com.nus.sellr.user.repository.SellerRepository;
+import com.nus.sellr.product.search.LowStockIndex;
+import com.nus.sellr.product.search.ProductCategoryRegistry;
+import com.nus.sellr.product.search.ProductPopularity;
+import com.nus.sellr.product.search.ProductSearchCursor;
+import com.nus.sellr.product.search.PriceRange;
+import com.nus.sellr.product.search.ProductSearchIndex;
+import com.nus.sellr.product.search.ProductSuggester;
+import com.nus.sellr.product.search.SearchCount;
+import com.nus.sellr.product.search.SearchCountCache;
+import com.nus.sellr.product.search.SearchCountMode;
+import com.nus.sellr.product.search.SearchFacetCache;
+import com.nus.sellr.user.cache.SellerDirectory;
+import com.nus.sellr.user.dto.SellerSummary;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,7 +73,34 @@ class ProductServiceTest {
     private ProductService productService;
 
     @Mock
-    private SellerRepository sellerRepository;
+    private SellerDirectory sellerDirectory;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private SearchCountCache searchCountCache;
+
+    @Mock
+    private SearchFacetCache searchFacetCache;
+
+    @Mock
+    private ProductCategoryRegistry categoryRegistry;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private ProductSuggester productSuggester;
+
+    @Mock
+    private ProductPopularity productPopularity;
+
+    @Mock
+    private ProductEventBus productEventBus;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
 
     @BeforeEach
     void setUp() {
@@ -66,6 +127,8 @@ class ProductServiceTest {
 
         assertEquals("prod1", result.getId());
         verify(productRepository, times(1)).save(product);
+        verify(productEventBus, times(1)).publish(argThat(event ->
+                event.getType() == ProductChangeEvent.Type.SAVED && "prod1".equals(event.getProductId())));
     }
 
     @Test
@@ -87,6 +150,43 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findAll();
     }
 
+    @Test
+    void testStreamAllProducts_mapsEachRowAndClosesCursor() {
+        Product p1 = new Product();
+        Product p2 = new Product();
+        Iterator<Product> rows = List.of(p1, p2).iterator();
+        boolean[] closed = {false};
+        CloseableIterator<Product> cursor = new CloseableIterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Product next() {
+                return rows.next();
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        ProductResponse r1 = new ProductResponse();
+        ProductResponse r2 = new ProductResponse();
+
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenReturn(cursor);
+        when(productMapper.toResponse(p1)).thenReturn(r1);
+        when(productMapper.toResponse(p2)).thenReturn(r2);
+
+        List<ProductResponse> streamed = new ArrayList<>();
+        productService.streamAllProducts(streamed::add);
+
+        assertEquals(List.of(r1, r2), streamed);
+        assertTrue(closed[0]);
+        verify(productRepository, never()).findAll();
+    }
+
     @Test
     void testGetProductById_found() {
         // Arrange
@@ -97,15 +197,13 @@ class ProductServiceTest {
         ProductResponse response = new ProductResponse();
         response.setId("prod1");
 
-        when(productRepository.findById("prod1")).thenReturn(Optional.of(product));
+        when(productCache.get("prod1")).thenReturn(Optional.of(product));
         when(productMapper.toResponse(product)).thenReturn(response);
 
-        // Mock sellerRepository
-        Seller seller = new Seller();
-        seller.setId("seller1");
-        seller.setUsername("SellerName");
+        // Mock seller directory
+        SellerSummary seller = new SellerSummary("seller1", "SellerName", "Store");
 
-        when(sellerRepository.findById("seller1")).thenReturn(Optional.of(seller));
+        when(sellerDirectory.find("seller1")).thenReturn(Optional.of(seller));
 
         // Act
         ProductResponse result = productService.getProductById("prod1");
@@ -113,15 +211,15 @@ class ProductServiceTest {
         // Assert
         assertEquals("prod1", result.getId());
         assertEquals("SellerName", result.getSellerName()); // now the sellerName is attached
-        verify(productRepository, times(1)).findById("prod1");
+        verify(productCache, times(1)).get("prod1");
         verify(productMapper, times(1)).toResponse(product);
-        verify(sellerRepository, times(1)).findById("seller1");
+        verify(sellerDirectory, times(1)).find("seller1");
     }
 
 
     @Test
     void testGetProductById_notFound() {
-        when(productRepository.findById("prodX")).thenReturn(Optional.empty());
+        when(productCache.get("prodX")).thenReturn(Optional.empty());
 
         assertThrows(IllegalArgumentException.class, () -> productService.getProductById("prodX"));
     }
@@ -154,6 +252,7 @@ class ProductServiceTest {
         assertEquals("prod1", result.getId());
         assertEquals("Updated", result.getName());
         verify(productRepository, times(1)).save(existing);
+        verify(productCache, times(1)).invalidate("prod1");
     }
 
     @Test
@@ -164,6 +263,9 @@ class ProductServiceTest {
         productService.deleteProduct(id);
 
         verify(productRepository, times(1)).deleteById(id);
+        verify(productCache, times(1)).invalidate(id);
+        verify(productEventBus, times(1)).publish(argThat(event ->
+                event.getType() == ProductChangeEvent.Type.DELETED && id.equals(event.getProductId())));
     }
 
     @Test
@@ -198,26 +300,91 @@ class ProductServiceTest {
     }
 
     @Test
-    void testGetAllCategories() {
+    void testGetProductSummariesBySellerId_keysetOnIdWithoutDescription() {
+        String after = "650000000000000000000001";
         Product p1 = new Product();
-        p1.setCategory("cat1");
+        p1.setId("650000000000000000000002");
         Product p2 = new Product();
-        p2.setCategory("cat2");
+        p2.setId("650000000000000000000003");
+        when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(new ArrayList<>(List.of(p1, p2)));
+        when(productMapper.toSummary(p1)).thenReturn(new ProductSummary());
+
+        CursorPage<ProductSummary> page = productService.getProductSummariesBySellerId("seller1", after, 1);
+
+        assertEquals(1, page.getContent().size());
+        assertEquals(p1.getId(), page.getNextCursor());
+        verify(mongoTemplate).find(argThat((Query q) ->
+                "seller1".equals(q.getQueryObject().get("sellerId"))
+                        && q.getQueryObject().containsKey("_id")
+                        && q.getLimit() == 2
+                        && !q.getFieldsObject().containsKey("description")
+                        && q.getFieldsObject().containsKey("name")), eq(Product.class));
+    }
+
+    @Test
+    void testGetProductSummariesBySellerId_rejectsBadCursorAndSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.getProductSummariesBySellerId("seller1", "not-an-id", 20));
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.getProductSummariesBySellerId("seller1", null, 0));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void testGetLowStockProducts_servedFromIndex() {
+        Product p = new Product();
+        p.setId("prod1");
+        ProductResponse response = new ProductResponse();
+        response.setId("prod1");
+        when(lowStockIndex.isReady()).thenReturn(true);
+        when(lowStockIndex.getLowStock("seller1")).thenReturn(List.of(p));
+        when(productMapper.toResponseList(List.of(p))).thenReturn(List.of(response));
+
+        List<ProductResponse> result = productService.getLowStockProducts("seller1");
+
+        assertEquals("prod1", result.get(0).getId());
+        verifyNoInteractions(mongoTemplate, productRepository);
+    }
+
+    @Test
+    void testGetLowStockProducts_queriesMongoWhenIndexNotReady() {
+        when(lowStockIndex.isReady()).thenReturn(false);
+        when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(List.of());
 
-        when(productRepository.findAllCategories()).thenReturn(List.of(p1, p2));
+        productService.getLowStockProducts("seller1");
+
+        verify(mongoTemplate).find(argThat((Query q) ->
+                "seller1".equals(q.getQueryObject().get("sellerId"))
+                        && q.getQueryObject().containsKey("stock")), eq(Product.class));
+    }
+
+    @Test
+    void testGetAllCategories() {
+        when(categoryRegistry.isReady()).thenReturn(true);
+        when(categoryRegistry.getCategories()).thenReturn(List.of("cat1", "cat2"));
 
         List<String> result = productService.getAllCategories();
 
         assertEquals(2, result.size());
         assertTrue(result.contains("cat1"));
         assertTrue(result.contains("cat2"));
+        verify(productRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetAllCategories_registryNotReadyUsesDistinct() {
+        when(categoryRegistry.isReady()).thenReturn(false);
+        when(mongoTemplate.findDistinct(any(Query.class), eq("category"), eq(Product.class), eq(String.class)))
+                .thenReturn(List.of("cat1"));
+
+        assertEquals(List.of("cat1"), productService.getAllCategories());
     }
 
     @Test
     void testGetProductEntityById_exists() {
         Product product = new Product();
         product.setId("p1");
-        when(productRepository.findById("p1")).thenReturn(Optional.of(product));
+        when(productCache.get("p1")).thenReturn(Optional.of(product));
 
         Product result = productService.getProductEntityById("p1");
 
@@ -226,7 +393,7 @@ class ProductServiceTest {
 
     @Test
     void testGetProductEntityById_notExists() {
-        when(productRepository.findById("p1")).thenReturn(Optional.empty());
+        when(productCache.get("p1")).thenReturn(Optional.empty());
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> {
             productService.getProductEntityById("p1");
@@ -235,6 +402,45 @@ class ProductServiceTest {
         assertEquals("Product not found", ex.getMessage());
     }
 
+    @Test
+    void testDecrementStock_conditionalIncWhenEnoughStock() {
+        Product updated = new Product();
+        updated.setId("p1");
+        updated.setStock(3);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Product.class))).thenReturn(updated);
+
+        assertSame(updated, productService.decrementStock("p1", 2));
+
+        verify(mongoTemplate).findAndModify(argThat((Query q) -> q.getQueryObject().toJson().contains("$gte")),
+                argThat((Update u) -> u.getUpdateObject().containsKey("$inc")),
+                any(FindAndModifyOptions.class), eq(Product.class));
+        verify(productRepository, never()).save(any());
+        verify(productCache).invalidate("p1");
+    }
+
+    @Test
+    void testDecrementStock_emptiesStockWhenOrderExceedsIt() {
+        Product emptied = new Product();
+        emptied.setId("p1");
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Product.class))).thenReturn(null, emptied);
+
+        assertSame(emptied, productService.decrementStock("p1", 5));
+        verify(mongoTemplate).findAndModify(argThat((Query q) -> q.getQueryObject().toJson().contains("$lt")),
+                argThat((Update u) -> Integer.valueOf(0).equals(
+                        u.getUpdateObject().get("$set", Document.class).get("stock"))),
+                any(FindAndModifyOptions.class), eq(Product.class));
+    }
+
+    @Test
+    void testDecrementStock_missingProduct() {
+        when(productRepository.existsById("p1")).thenReturn(false);
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> productService.decrementStock("p1", 1));
+        assertEquals("Product not found", ex.getMessage());
+    }
+
     // saveProduct
     @Test
     void testSaveProduct() {
@@ -267,6 +473,19 @@ class ProductServiceTest {
         assertEquals(responses, result.getContent());
     }
 
+    @Test
+    void testSearch_priceRangeAddsCriteriaAndSkipsCountCache() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(List.of());
+        when(mongoTemplate.count(any(Query.class), eq(Product.class))).thenReturn(0L);
+
+        productService.search("lamp", null, PriceRange.of(10.0, 50.0), pageable, false);
+
+        verify(mongoTemplate).find(argThat(query -> query.getQueryObject().toJson().contains("\"$lte\": 50.0")),
+                eq(Product.class));
+        verify(searchCountCache, never()).put(any(), any(), any());
+    }
+
     @Test
     void testSearch_emptyQueryAndCategory() {
         Pageable pageable = PageRequest.of(0, 10);
@@ -284,5 +503,288 @@ class ProductServiceTest {
         assertEquals(responses, result.getContent());
     }
 
+    @Test
+    void testSearch_usesIndexWhenReady() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Product product = new Product();
+        product.setId("p1");
+        ProductResponse response = new ProductResponse();
+        response.setId("p1");
+
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.supports(any())).thenReturn(true);
+        when(productSearchIndex.search("phone", null, PriceRange.ANY, pageable, false))
+                .thenReturn(new PageImpl<>(List.of(product), pageable, 1));
+        when(productMapper.toResponse(product)).thenReturn(response);
+
+        Page<ProductResponse> result = productService.search("phone", null, pageable);
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals("p1", result.getContent().get(0).getId());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Product.class));
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Product.class));
+    }
+
+    @Test
+    void testSearchAfter_mongoKeysetWithoutCount() {
+        Product p1 = new Product();
+        p1.setId("p1");
+        p1.setPrice(10);
+        Product p2 = new Product();
+        p2.setId("p2");
+        p2.setPrice(20);
+
+        when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(new ArrayList<>(List.of(p1, p2)));
+        when(productMapper.toResponseList(any())).thenAnswer(inv -> List.of(new ProductResponse()));
+
+        CursorPage<ProductResponse> result = productService.searchAfter(
+                "phone", null, Sort.Order.asc("price"), null, 1, SearchCountMode.NONE);
+
+        assertNotNull(result.getNextCursor());
+        assertNull(result.getTotalElements());
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Product.class));
+
+        // the cursor resumes after p1 and is rejected for a different sort
+        ProductSearchCursor cursor = ProductSearchCursor.decode(result.getNextCursor());
+        assertEquals("p1", cursor.toProbe().getId());
+        assertEquals(10.0, cursor.toProbe().getPrice());
+        assertThrows(IllegalArgumentException.class, () -> productService.searchAfter(
+                "phone", null, Sort.Order.desc("price"), result.getNextCursor(), 1, SearchCountMode.NONE));
+    }
+
+    @Test
+    void testSearchAfter_indexWithCount() {
+        Product p1 = new Product();
+        p1.setId("p1");
+
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.searchAfter(eq("lamp"), isNull(), any(), isNull(), eq(3))).thenReturn(List.of(p1));
+        when(productSearchIndex.count("lamp", null)).thenReturn(1L);
+        when(productMapper.toResponseList(any())).thenAnswer(inv -> List.of(new ProductResponse()));
+
+        CursorPage<ProductResponse> result = productService.searchAfter(
+                "lamp", null, Sort.Order.desc("createdAt"), null, 2, SearchCountMode.EXACT);
+
+        assertNull(result.getNextCursor());
+        assertEquals(1L, result.getTotalElements());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Product.class));
+    }
+
+    @Test
+    void testSearchAfter_invalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> productService.searchAfter(
+                null, null, Sort.Order.asc("price"), "not-a-cursor", 10, SearchCountMode.NONE));
+    }
+
+    @Test
+    void testSearchAfter_rejectsOversizedPage() {
+        assertThrows(IllegalArgumentException.class, () -> productService.searchAfter(
+                null, null, Sort.Order.asc("price"), null, Integer.MAX_VALUE, SearchCountMode.NONE));
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Product.class));
+    }
+
+    @Test
+    void testSearch_usesCachedCount() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(List.of());
+        when(productMapper.toResponseList(any())).thenReturn(List.of());
+        when(searchCountCache.get("phone", null)).thenReturn(new SearchCount(42, true));
+
+        Page<ProductResponse> result = productService.search("phone", null, pageable);
+
+        assertEquals(42, result.getTotalElements());
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Product.class));
+    }
+
+    @Test
+    void testSearchAfter_estimatedCountStopsAtCap() {
+        when(searchCountCache.getCountCap()).thenReturn(100L);
+        when(mongoTemplate.count(any(Query.class), eq(Product.class))).thenReturn(101L);
+        when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(List.of());
+        when(productMapper.toResponseList(any())).thenReturn(List.of());
+
+        CursorPage<ProductResponse> result = productService.searchAfter(
+                "phone", null, Sort.Order.desc("createdAt"), null, 10, SearchCountMode.ESTIMATE);
+
+        assertEquals(100L, result.getTotalElements());
+        assertTrue(result.isTotalEstimated());
+        verify(mongoTemplate).count(argThat((Query query) -> query.getLimit() == 101), eq(Product.class));
+        verify(searchCountCache).put(eq("phone"), isNull(), any(SearchCount.class), eq(0L));
+    }
+
+    @Test
+    void testUpdateProduct_publishesSnapshotOfSavedProduct() {
+        Product existing = new Product();
+        existing.setId("prod1");
+        existing.setCategory("Old");
+        ProductRequest request = new ProductRequest();
+        request.setCategory("New");
+
+        when(productRepository.findById("prod1")).thenReturn(Optional.of(existing));
+        when(productRepository.save(existing)).thenReturn(existing);
+
+        productService.updateProduct("prod1", request);
+
+        verify(productEventBus).publish(argThat(event -> "New".equals(event.getProduct().getCategory())));
+        verify(searchCountCache, never()).invalidateCategory(any());
+    }
+
+    @Test
+    void testGetProductsByIds_delegatesToCache() {
+        Product product = new Product();
+        product.setId("p1");
+        when(productCache.getAll(List.of("p1", "p2"))).thenReturn(Map.of("p1", product));
+
+        Map<String, Product> result = productService.getProductsByIds(List.of("p1", "p2"));
+
+        assertEquals(product, result.get("p1"));
+        assertTrue(productService.getProductsByIds(List.of()).isEmpty());
+        verify(productCache, times(1)).getAll(anyCollection());
+    }
+
+    @Test
+    void testGetFacets_computedFromIndexAndCached() {
+        double[] bounds = {0, 50};
+        SearchFacets facets = new SearchFacets(List.of(), List.of());
+        when(searchFacetCache.getPriceBounds()).thenReturn(bounds);
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.facets("phone", null, bounds)).thenReturn(facets);
+
+        assertSame(facets, productService.getFacets("phone", null));
+
+        verify(searchFacetCache, times(1)).put("phone", null, facets);
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), eq(Product.class), eq(Document.class));
+    }
+
+    @Test
+    void testGetFacets_servedFromCache() {
+        SearchFacets facets = new SearchFacets(List.of(), List.of());
+        when(searchFacetCache.get("phone", "cat")).thenReturn(facets);
 
+        assertSame(facets, productService.getFacets("phone", "cat"));
+
+        verify(productSearchIndex, never()).facets(any(), any(), any());
+    }
+
+    @Test
+    void testSuggest_capsLimitAtConfiguredMaximum() {
+        List<ProductSuggestion> suggestions = List.of(new ProductSuggestion("iPhone", "product", "p1"));
+        when(productSuggester.getMaxResults()).thenReturn(10);
+        when(productSuggester.suggest("iph", 10)).thenReturn(suggestions);
+
+        assertEquals(suggestions, productService.suggest("iph", 50));
+    }
+
+    @Test
+    void testSearch_fuzzyUsesIndex() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Product product = new Product();
+        product.setId("p1");
+        ProductResponse response = new ProductResponse();
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.supports(pageable.getSort())).thenReturn(true);
+        when(productSearchIndex.search("iphnoe", null, PriceRange.ANY, pageable, true)).thenReturn(new PageImpl<>(List.of(product)));
+        when(productMapper.toResponse(product)).thenReturn(response);
+
+        Page<ProductResponse> result = productService.search("iphnoe", null, pageable, true);
+
+        assertEquals(List.of(response), result.getContent());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Product.class));
+    }
+
+    @Test
+    void testSearch_relevanceUsesIndexScoring() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "relevance"));
+        Product product = new Product();
+        product.setId("p1");
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.searchByRelevance(eq("lamp"), isNull(), eq(PriceRange.ANY), eq(pageable), eq(false), any()))
+                .thenReturn(new PageImpl<>(List.of(product), pageable, 1));
+        when(productMapper.toResponse(product)).thenReturn(new ProductResponse());
+
+        Page<ProductResponse> result = productService.search("lamp", null, pageable, false);
+
+        assertEquals(1, result.getTotalElements());
+        verify(productSearchIndex, never()).search(any(), any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void testSearch_relevanceFallsBackToNewestFirstWithoutIndex() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "relevance"));
+        when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(List.of());
+
+        productService.search("lamp", null, pageable, false);
+
+        verify(mongoTemplate).find(argThat(query -> query.getSortObject().containsKey("id")), eq(Product.class));
+    }
+
+    @Test
+    void testBulkUpdate_oneBulkWriteThenOneRefreshPerBatch() {
+        BulkOperations bulkOps = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)).thenReturn(bulkOps);
+        when(bulkOps.updateOne(any(Query.class), any(Update.class))).thenReturn(bulkOps);
+        when(bulkOps.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of()));
+        Product p1 = new Product();
+        p1.setId("p1");
+        p1.setCategory("home");
+        when(productRepository.findAllById(List.of("p1", "gone"))).thenReturn(List.of(p1));
+
+        ProductBulkUpdateResult result = productService.bulkUpdate(List.of(
+                new ProductPatch("p1", 9.5, null, 5, "home"),
+                new ProductPatch("gone", null, 3, null, null)));
+
+        assertEquals(1, result.getMatched());
+        assertEquals(List.of("gone"), result.getMissingIds());
+        verify(bulkOps).updateOne(eq(Query.query(Criteria.where("id").is("p1"))), argThat(update ->
+                update.getUpdateObject().get("$set", Document.class).get("price").equals(9.5)
+                        && update.getUpdateObject().get("$inc", Document.class).get("stock").equals(5)));
+        verify(bulkOps, times(1)).execute();
+        verify(productRepository, never()).findById(any());
+        verify(productEventBus, times(1)).publishAll(argThat(events -> events.size() == 1));
+    }
+
+    @Test
+    void testBulkUpdate_negativeDeltaNeverTakesStockBelowZero() {
+        Product p1 = new Product();
+        p1.setId("p1");
+        p1.setStock(2);
+        Product p2 = new Product();
+        p2.setId("p2");
+        p2.setStock(4);
+        p2.setUpdatedAt(Instant.EPOCH);  // a later write may have moved updatedAt; the decrement still counts
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Product.class))).thenAnswer(inv -> {
+                    Query query = inv.getArgument(0);
+                    return "p2".equals(query.getQueryObject().get("id")) ? p2 : null;
+                });
+        when(productRepository.findAllById(List.of("p1"))).thenReturn(List.of(p1));
+
+        ProductBulkUpdateResult result = productService.bulkUpdate(List.of(
+                new ProductPatch("p1", null, null, -5, null),
+                new ProductPatch("p2", null, null, -1, null)));
+
+        verify(mongoTemplate).findAndModify(eq(Query.query(Criteria.where("id").is("p1").and("stock").gte(5))),
+                any(Update.class), any(FindAndModifyOptions.class), eq(Product.class));
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class));
+        assertEquals(List.of("p1"), result.getInsufficientStockIds());
+        assertEquals(List.of(), result.getMissingIds());
+        assertEquals(1, result.getModified());
+        verify(productEventBus).publishAll(argThat(events -> events.size() == 1
+                && events.get(0).getProductId().equals("p2")));
+    }
+
+    @Test
+    void testBulkUpdate_rejectsStockWithStockDelta() {
+        List<ProductPatch> patches = List.of(new ProductPatch("p1", null, 3, 2, null));
+
+        assertThrows(IllegalArgumentException.class, () -> productService.bulkUpdate(patches));
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class));
+    }
+
+    @Test
+    void testRecordSale_feedsPopularity() {
+        productService.recordSale("p1", 3);
+
+        verify(productPopularity, times(1)).recordSale("p1", 3);
+    }
 }
@@ -0,0 +1,79 @@
+package com.nus.sellr.user.cache;
+
+import com.nus.sellr.user.entity.Seller;
+import com.nus.sellr.user.repository.SellerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SellerDirectoryTest {
+
+    private SellerRepository sellerRepository;
+    private SellerDirectory sellerDirectory;
+
+    @BeforeEach
+    void setUp() {
+        sellerRepository = mock(SellerRepository.class);
+        sellerDirectory = new SellerDirectory(sellerRepository, 100, 600);
+    }
+
+    private Seller seller(String id, String username) {
+        Seller seller = new Seller(username, username + "@example.com", "pw", "Store " + username);
+        seller.setId(id);
+        return seller;
+    }
+
+    @Test
+    void testFind_loadsOnceThenServesFromCache() {
+        when(sellerRepository.findById("s1")).thenReturn(Optional.of(seller("s1", "alice")));
+
+        assertEquals("alice", sellerDirectory.getUsername("s1"));
+        assertEquals("Store alice", sellerDirectory.find("s1").get().getStoreName());
+
+        verify(sellerRepository, times(1)).findById("s1");
+    }
+
+    @Test
+    void testFind_cachesUnknownSellers() {
+        when(sellerRepository.findById("gone")).thenReturn(Optional.empty());
+
+        assertNull(sellerDirectory.getUsername("gone"));
+        assertNull(sellerDirectory.getUsername("gone"));
+
+        verify(sellerRepository, times(1)).findById("gone");
+    }
+
+    @Test
+    void testInvalidate_picksUpRename() {
+        when(sellerRepository.findById("s1"))
+                .thenReturn(Optional.of(seller("s1", "alice")))
+                .thenReturn(Optional.of(seller("s1", "alice2")));
+
+        sellerDirectory.getUsername("s1");
+        long version = sellerDirectory.getVersion();
+        sellerDirectory.invalidate("s1");
+
+        assertEquals("alice2", sellerDirectory.getUsername("s1"));
+        assertTrue(sellerDirectory.getVersion() > version);
+    }
+
+    @Test
+    void testGetUsernames_loadsMissesInOneQuery() {
+        when(sellerRepository.findById("s1")).thenReturn(Optional.of(seller("s1", "alice")));
+        sellerDirectory.getUsername("s1");
+        when(sellerRepository.findAllById(List.of("s2", "gone"))).thenReturn(List.of(seller("s2", "bob")));
+
+        Map<String, String> usernames = sellerDirectory.getUsernames(List.of("s1", "s2", "gone", "s2"));
+
+        assertEquals(Map.of("s1", "alice", "s2", "bob"), usernames);
+        assertEquals(Map.of("s2", "bob"), sellerDirectory.getUsernames(List.of("s2", "gone")));
+        verify(sellerRepository, times(1)).findAllById(any());
+        verify(sellerRepository, never()).findById("s2");
+    }
+}
@@ -1,5 +1,6 @@
 package com.nus.sellr.user.service;
 
+import com.nus.sellr.user.cache.SellerDirectory;
 import com.nus.sellr.user.dto.*;
 import com.nus.sellr.user.entity.*;
 import com.nus.sellr.user.factory.UserFactory;
@@ -27,6 +28,7 @@ class UserServiceTest {
     @Mock private UserRepository userRepository;
     @Mock private UserFactory userFactory;
     @Mock private JwtUtils jwtUtils;
+    @Mock private SellerDirectory sellerDirectory;
 
     @InjectMocks
     private UserService userService;
@@ -344,6 +346,7 @@ class UserServiceTest {
 
         userService.deleteUser("s1");
         verify(sellerRepository).delete(seller);
+        verify(sellerDirectory).invalidate("s1");
     }
 
     @Test
@@ -1,7 +1,7 @@
 package com.nus.sellr.wishlist.service;
 
 import com.nus.sellr.product.entity.Product;
-import com.nus.sellr.product.repository.ProductRepository;
+import com.nus.sellr.product.service.ProductService;
 import com.nus.sellr.wishlist.dto.WishlistDTO;
 import com.nus.sellr.wishlist.entity.Wishlist;
 import com.nus.sellr.wishlist.entity.WishlistItem;
@@ -12,7 +12,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,7 +24,7 @@ class WishlistServiceTest {
     private WishlistRepository wishlistRepository;
 
     @Mock
-    private ProductRepository productRepository;
+    private ProductService productService;
 
     @InjectMocks
     private WishlistService wishlistService;
@@ -48,7 +49,8 @@ class WishlistServiceTest {
         product.setImageUrl("img.png");
 
         when(wishlistRepository.findByUserId(userId)).thenReturn(null);
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productService.getProductEntityById(productId)).thenReturn(product);
+        when(productService.getProductsByIds(List.of(productId))).thenReturn(Map.of(productId, product));
         when(wishlistRepository.save(any(Wishlist.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
@@ -73,7 +75,8 @@ class WishlistServiceTest {
         product.setId(productId);
 
         when(wishlistRepository.findByUserId(userId)).thenReturn(wishlist);
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productService.getProductEntityById(productId)).thenReturn(product);
+        when(productService.getProductsByIds(List.of(productId))).thenReturn(Map.of(productId, product));
 
         // Act + Assert
         RuntimeException ex = assertThrows(RuntimeException.class,
@@ -88,7 +91,7 @@ class WishlistServiceTest {
         String userId = "user1";
         String productId = "invalid";
 
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        when(productService.getProductEntityById(productId)).thenThrow(new RuntimeException("Product not found"));
 
         RuntimeException ex = assertThrows(RuntimeException.class,
                 () -> wishlistService.addProduct(userId, productId));
@@ -107,7 +110,6 @@ class WishlistServiceTest {
         wishlist.getItems().add(new WishlistItem(productId));
 
         when(wishlistRepository.findByUserId(userId)).thenReturn(wishlist);
-        when(productRepository.findById(anyString())).thenReturn(Optional.of(new Product()));
         when(wishlistRepository.save(any(Wishlist.class))).thenReturn(wishlist);
 
         WishlistDTO result = wishlistService.removeProduct(userId, productId);
@@ -142,7 +144,8 @@ class WishlistServiceTest {
         product.setPrice(5);
 
         when(wishlistRepository.findByUserId(userId)).thenReturn(wishlist);
-        when(productRepository.findById("prod1")).thenReturn(Optional.of(product));
+        when(productService.getProductEntityById("prod1")).thenReturn(product);
+        when(productService.getProductsByIds(List.of("prod1"))).thenReturn(Map.of("prod1", product));
 
         WishlistDTO result = wishlistService.getWishlist(userId);
 